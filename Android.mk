@@ -1,4 +1,7 @@
 LOCAL_PATH:= $(call my-dir)
+
+include $(LOCAL_PATH)/core/sprites/sprites.mk
+
 include $(CLEAR_VARS)
 
 LOCAL_MODULE_TAGS := optional
@@ -7,13 +10,23 @@ LOCAL_STATIC_JAVA_LIBRARIES :=  \
     android-support-v13 \
     org.cyanogenmod.platform.internal
 
-LOCAL_SRC_FILES := $(call all-java-files-under, src)
+LOCAL_SRC_FILES := $(call all-java-files-under, src) \
+    $(call all-java-files-under, core/src)
 
 LOCAL_PACKAGE_NAME := Dotcase
 LOCAL_CERTIFICATE := platform
 
 LOCAL_PROGUARD_FLAG_FILES := proguard.flags
 
+dotcase_intermediates := $(call intermediates-dir-for,APPS,$(LOCAL_PACKAGE_NAME),,COMMON)
+dotcase_sprites := $(dotcase_intermediates)/sprites/dotcase-sprites.bin
+$(dotcase_sprites): $(LOCAL_PATH)/core/sprites/sprites.txt $(dotcase_spritec)
+	$(dotcase-compile-sprites)
+
+LOCAL_JAVA_RESOURCE_FILES := $(dotcase_sprites)
+
 include $(BUILD_PACKAGE)
 
+$(full_classes_jar): $(dotcase_sprites)
+
 include $(call all-makefiles-under,$(LOCAL_PATH))
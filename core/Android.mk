@@ -0,0 +1,24 @@
+LOCAL_PATH:= $(call my-dir)
+
+include $(LOCAL_PATH)/sprites/sprites.mk
+
+# Frame composition without any Android dependency, so that it can be
+# profiled and tested on the host.  The app builds these sources itself.
+include $(CLEAR_VARS)
+
+LOCAL_MODULE := dotcase-core
+LOCAL_MODULE_TAGS := optional
+
+LOCAL_SRC_FILES := $(call all-java-files-under, src)
+
+dotcase_core_intermediates := \
+    $(call intermediates-dir-for,JAVA_LIBRARIES,$(LOCAL_MODULE),HOST,COMMON)
+dotcase_core_sprites := $(dotcase_core_intermediates)/sprites/dotcase-sprites.bin
+$(dotcase_core_sprites): $(LOCAL_PATH)/sprites/sprites.txt $(dotcase_spritec)
+	$(dotcase-compile-sprites)
+
+LOCAL_JAVA_RESOURCE_FILES := $(dotcase_core_sprites)
+
+include $(BUILD_HOST_JAVA_LIBRARY)
+
+$(full_classes_jar): $(dotcase_core_sprites)
@@ -0,0 +1,9 @@
+# Compiles core/sprites/sprites.txt into the packed resource read by Sprites.
+# Included by every module that bundles the sprites, so that each can be
+# built on its own.
+dotcase_spritec := $(HOST_OUT_JAVA_LIBRARIES)/dotcase-spritec$(COMMON_JAVA_PACKAGE_SUFFIX)
+define dotcase-compile-sprites
+@echo "Sprites: $@"
+@mkdir -p $(dir $@)
+$(hide) java -jar $(dotcase_spritec) $< $@
+endef
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Debounces raw cover events.
+ *
+ * The first event after a quiet period is acted on right away, so a normal
+ * close or open costs no extra latency, and it opens a settle window.
+ * Events arriving inside the window only update the pending state, which
+ * is acted on once the window ends if it differs from the current one.  A
+ * burst from a flapping magnet or a quick peek therefore costs at most two
+ * transitions however many events it has.  Not thread safe.
+ */
+class CoverStateMachine {
+    static final int STATE_UNKNOWN = 0;
+    static final int STATE_OPEN = 1;
+    static final int STATE_CLOSED = 2;
+
+    private final long mSettleWindow;
+
+    private int mState = STATE_UNKNOWN;
+    private int mPending = STATE_UNKNOWN;
+    private long mWindowEnd = Long.MIN_VALUE;
+
+    private long mEvents;
+    private long mTransitions;
+
+    /**
+     * @param settleWindow milliseconds during which events following an
+     *                     acted on one are coalesced
+     */
+    CoverStateMachine(long settleWindow) {
+        mSettleWindow = settleWindow;
+    }
+
+    /**
+     * Feeds a raw cover event.
+     *
+     * @return true if the state changed and must be acted on now
+     */
+    boolean onEvent(boolean closed, long now) {
+        mEvents++;
+        mPending = closed ? STATE_CLOSED : STATE_OPEN;
+        if (now < mWindowEnd) {
+            return false;
+        }
+        return apply(now);
+    }
+
+    /**
+     * Must be called once getSettleTime() has passed while a change is
+     * pending.
+     *
+     * @return true if the state changed and must be acted on now
+     */
+    boolean onSettle(long now) {
+        if (now < mWindowEnd || mPending == mState) {
+            return false;
+        }
+        return apply(now);
+    }
+
+    /**
+     * Returns whether an event is waiting for the window to end.
+     */
+    boolean hasPendingChange() {
+        return mPending != mState;
+    }
+
+    /**
+     * Returns when the current settle window ends.
+     */
+    long getSettleTime() {
+        return mWindowEnd;
+    }
+
+    boolean isClosed() {
+        return mState == STATE_CLOSED;
+    }
+
+    long getEventCount() {
+        return mEvents;
+    }
+
+    long getTransitionCount() {
+        return mTransitions;
+    }
+
+    private boolean apply(long now) {
+        if (mPending == mState) {
+            // Repeated event, nothing to act on or to settle
+            return false;
+        }
+        mState = mPending;
+        mTransitions++;
+        mWindowEnd = now + mSettleWindow;
+        return true;
+    }
+}
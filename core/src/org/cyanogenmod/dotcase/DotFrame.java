@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Logical contents of the 27x48 dot display.
+ *
+ * Every palette color has one bit plane holding a packed int per row, bit x
+ * being column x.  A dot is lit in at most one plane; a dot lit in none is
+ * empty.  Sprite values are paintColors indices minus one: -1 is
+ * transparent and leaves the frame untouched, 0 and up select a plane.
+ */
+class DotFrame {
+    static final int WIDTH = 27;
+    static final int HEIGHT = 48;
+    static final int COLORS = DotcaseConstants.paintColors.length - 1;
+
+    // Sprite transforms for blit()
+    static final int FLIP_H = 1;
+    static final int FLIP_V = 2;
+
+    private static final int ALL_COLUMNS = (1 << WIDTH) - 1;
+
+    private final int[][] mPlanes = new int[COLORS][HEIGHT];
+
+    // Per-color scratch masks for the row being blitted
+    private final int[] mRowMasks = new int[COLORS];
+
+    void clear() {
+        for (int color = 0; color < COLORS; color++) {
+            int[] plane = mPlanes[color];
+            for (int y = 0; y < HEIGHT; y++) {
+                plane[y] = 0;
+            }
+        }
+    }
+
+    void copyFrom(DotFrame other) {
+        for (int color = 0; color < COLORS; color++) {
+            System.arraycopy(other.mPlanes[color], 0, mPlanes[color], 0, HEIGHT);
+        }
+    }
+
+    /**
+     * Composes a sprite onto the frame with its top left dot at (x, y).
+     * Dots falling outside of the display are clipped.
+     */
+    void blit(int[][] sprite, int x, int y) {
+        blit(sprite, x, y, 0, null);
+    }
+
+    /**
+     * Composes a transformed sprite onto the frame with the top left dot of
+     * the result at (x, y), without making a copy of the sprite.
+     *
+     * @param transform any combination of FLIP_H and FLIP_V
+     * @param remap color drawn for each sprite color, -1 making it transparent,
+     *              or null to draw the sprite colors as they are
+     */
+    void blit(int[][] sprite, int x, int y, int transform, int[] remap) {
+        boolean flipH = (transform & FLIP_H) != 0;
+        boolean flipV = (transform & FLIP_V) != 0;
+
+        for (int i = 0; i < sprite.length; i++) {
+            int row = y + i;
+            if (row < 0 || row >= HEIGHT) {
+                continue;
+            }
+
+            int[] line = sprite[flipV ? sprite.length - 1 - i : i];
+            int covered = 0;
+            for (int j = 0; j < line.length; j++) {
+                int column = x + j;
+                int color = line[flipH ? line.length - 1 - j : j];
+                if (remap != null && color >= 0) {
+                    color = remap[color];
+                }
+                if (color < 0 || column < 0 || column >= WIDTH) {
+                    continue;
+                }
+                int bit = 1 << column;
+                covered |= bit;
+                mRowMasks[color] |= bit;
+            }
+
+            if (covered != 0) {
+                writeRow(row, covered);
+            }
+        }
+    }
+
+    /**
+     * Composes a window of a sprite onto the frame at (x, y), reading the
+     * sprite from column offset on and wrapping around at its right edge.
+     *
+     * @param width width of the window in dots
+     */
+    void blitWrapped(int[][] sprite, int offset, int x, int y, int width) {
+        for (int i = 0; i < sprite.length; i++) {
+            int row = y + i;
+            if (row < 0 || row >= HEIGHT) {
+                continue;
+            }
+
+            int[] line = sprite[i];
+            int source = offset % line.length;
+            int covered = 0;
+            for (int j = 0; j < width; j++, source++) {
+                if (source == line.length) {
+                    source = 0;
+                }
+                int column = x + j;
+                if (line[source] < 0 || column < 0 || column >= WIDTH) {
+                    continue;
+                }
+                int bit = 1 << column;
+                covered |= bit;
+                mRowMasks[line[source]] |= bit;
+            }
+
+            if (covered != 0) {
+                writeRow(row, covered);
+            }
+        }
+    }
+
+    /**
+     * Lights every dot in [left, right) x [top, bottom) with a single color.
+     */
+    void fillRect(int left, int top, int right, int bottom, int color) {
+        left = Math.max(left, 0);
+        right = Math.min(right, WIDTH);
+        if (left >= right || color < 0) {
+            return;
+        }
+
+        int covered = (ALL_COLUMNS >>> (WIDTH - right)) & ~((1 << left) - 1);
+        for (int row = Math.max(top, 0); row < bottom && row < HEIGHT; row++) {
+            mRowMasks[color] = covered;
+            writeRow(row, covered);
+        }
+    }
+
+    /**
+     * Computes the bounding box of all dots that differ between two frames.
+     *
+     * @param bounds receives the left, top, right and bottom dot (inclusive)
+     * @return false if both frames are identical
+     */
+    boolean diff(DotFrame other, int[] bounds) {
+        int left = WIDTH, top = HEIGHT, right = -1, bottom = -1;
+
+        for (int y = 0; y < HEIGHT; y++) {
+            int changed = 0;
+            for (int color = 0; color < COLORS; color++) {
+                changed |= mPlanes[color][y] ^ other.mPlanes[color][y];
+            }
+            if (changed != 0) {
+                top = Math.min(top, y);
+                bottom = y;
+                left = Math.min(left, Integer.numberOfTrailingZeros(changed));
+                right = Math.max(right, 31 - Integer.numberOfLeadingZeros(changed));
+            }
+        }
+
+        bounds[0] = left;
+        bounds[1] = top;
+        bounds[2] = right;
+        bounds[3] = bottom;
+        return bottom >= 0;
+    }
+
+    /**
+     * Returns the color at (x, y), or -1 if the dot is empty.
+     */
+    int get(int x, int y) {
+        int bit = 1 << x;
+        for (int color = 0; color < COLORS; color++) {
+            if ((mPlanes[color][y] & bit) != 0) {
+                return color;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the packed mask of dots in the given row lit with the given color.
+     */
+    int getRow(int color, int y) {
+        return mPlanes[color][y];
+    }
+
+    private void writeRow(int row, int covered) {
+        for (int color = 0; color < COLORS; color++) {
+            mPlanes[color][row] = (mPlanes[color][row] & ~covered) | mRowMasks[color];
+            mRowMasks[color] = 0;
+        }
+    }
+}
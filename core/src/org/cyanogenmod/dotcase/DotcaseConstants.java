@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DotcaseConstants {
+    static final String ACTION_KILL_ACTIVITY = "org.cyanogenmod.dotcase.KILL_ACTIVITY";
+    static final String ACTION_COVER_CLOSED = "org.cyanogenmod.dotcase.COVER_CLOSED";
+    static final int DOT_RATIO = 40;
+
+    /**
+     * Set to true to draw on a dedicated render thread instead of the UI thread
+     */
+    static final String PROP_RENDER_THREAD = "persist.sys.dotcase.render_thread";
+
+    /**
+     * Set to true to show the dot display in a window owned by the service
+     * instead of launching an activity on every cover close
+     */
+    static final String PROP_OVERLAY = "persist.sys.dotcase.overlay";
+
+    /**
+     * Milliseconds during which cover events following a handled one are
+     * coalesced into their final state
+     */
+    static final String PROP_COVER_SETTLE = "persist.sys.dotcase.cover_settle";
+    static final long COVER_SETTLE_DEFAULT = 300;
+
+    /**
+     * Set to true to record handled events to EVENT_LOG_FILE for replaying,
+     * cover events before they are debounced
+     */
+    static final String PROP_RECORD_EVENTS = "persist.sys.dotcase.record_events";
+    static final String EVENT_LOG_FILE = "events.log";
+
+    /**
+     * Notification types
+     */
+    enum Notification {
+        DOTS,
+        EMAIL,
+        TWITTER,
+        MISSED_CALL,
+        MMS,
+        VOICEMAIL,
+        COUPLES,
+        GMAIL,
+        HANGOUTS,
+        SNAPCHAT,
+        FACEBOOK,
+        FB_MESSENGER,
+        KIK,
+        GROUPME,
+        GPLUS,
+        INBOX,
+        LMMS,
+        INSTAGRAM,
+        WHATSAPP,
+        TAPATALK
+    }
+
+    /**
+     * Colors, as ARGB values
+     */
+    static final int[] paintColors = {
+        0x00000000, // Transparent
+        0xff000000, // Black
+        0xffffffff, // White
+        0xffff0000, // Red
+        0xff00ff00, // Green
+        0xff0000ff, // Blue
+        0xffffa500, // Orange
+        0xffa020f0, // Purple
+        0xffffff00, // Yellow
+        0xff444444, // Dark Gray
+        0xff33b5e5, // Cyan
+        0xff008000, // Dark Green
+        0xff800000, // Dark Red
+        0xffffff99, // Alarm Yellow
+        0xff55acee, // Twitter Blue
+        0xff3b5998, // Facebook Blue
+        0xffff64c8, // Couples Pink
+        0xff00aff0, // GroupMe Blue
+        0xff325ccc, // Inbox Blue
+        0xff22b7fb, // Inbox Teal
+        0xff80d3fd, // Inbox Sea Foam
+        0xff11a9f9, // LMMS Green
+        0xffe4e2e6, // LMMS Grey
+        0xffebe3d8, // Instagram Cream
+        0xff935b48, // Instagram Brown
+        0xff35b024, // Whatsapp Green
+        0xfff86901, // Tapatalk Orange
+    };
+
+    /**
+     * Notification map
+     */
+
+    static final Map<String, Notification> notificationMap;
+    static {
+        notificationMap = new HashMap<String, Notification>();
+
+        // Email apps
+        notificationMap.put("com.android.email", Notification.EMAIL);
+        notificationMap.put("com.google.android.email", Notification.EMAIL);
+        notificationMap.put("com.mailboxapp", Notification.EMAIL);
+        notificationMap.put("com.yahoo.mobile.client.android.mail", Notification.EMAIL);
+        notificationMap.put("com.outlook.Z7", Notification.EMAIL);
+        notificationMap.put("com.maildroid", Notification.EMAIL);
+        notificationMap.put("com.maildroid.pro", Notification.EMAIL);
+        notificationMap.put("com.fsck.k9", Notification.EMAIL);
+
+        // Twitter apps
+        notificationMap.put("com.twitter.android", Notification.TWITTER);
+        notificationMap.put("com.dotsandlines.carbon", Notification.TWITTER);
+        notificationMap.put("com.levelup.touiteur", Notification.TWITTER); // Plume
+        notificationMap.put("com.klinker.android.twitter", Notification.TWITTER); // Talon
+        notificationMap.put("com.jv.falcon.pro", Notification.TWITTER);
+        notificationMap.put("com.handmark.tweetcaster", Notification.TWITTER);
+        notificationMap.put("com.handmark.tweetcaster.premium", Notification.TWITTER);
+
+        // Missed call apps
+        notificationMap.put("com.android.phone", Notification.MISSED_CALL);
+
+        // MMS apps
+        notificationMap.put("com.google.android.apps.messaging", Notification.MMS);
+        notificationMap.put("com.p1.chompsms", Notification.MMS);
+        notificationMap.put("com.handcent.nextsms", Notification.MMS);
+        notificationMap.put("com.klinker.android.evolve_sms", Notification.MMS);
+
+        // Voicemail apps
+        notificationMap.put("com.google.android.apps.googlevoice",Notification.VOICEMAIL);
+
+        // Couples apps
+        notificationMap.put("com.tenthbit.juliet", Notification.COUPLES); // Couple
+        notificationMap.put("io.avocado.android", Notification.COUPLES);
+        notificationMap.put("kr.co.vcnc.android.couple", Notification.COUPLES); // Between
+
+        // Other apps
+        notificationMap.put("com.android.mms", Notification.LMMS);
+        notificationMap.put("com.google.android.apps.plus", Notification.GPLUS);
+        notificationMap.put("com.google.android.gm", Notification.GMAIL);
+        notificationMap.put("com.google.android.talk", Notification.HANGOUTS);
+        notificationMap.put("com.snapchat.android", Notification.SNAPCHAT);
+        notificationMap.put("com.facebook.katana", Notification.FACEBOOK);
+        notificationMap.put("com.facebook.orca", Notification.FB_MESSENGER);
+        notificationMap.put("kik.android", Notification.KIK);
+        notificationMap.put("com.groupme.android", Notification.GROUPME);
+        notificationMap.put("com.instagram.android", Notification.INSTAGRAM);
+        notificationMap.put("com.quoord.tapatalkpro.activity", Notification.TAPATALK);
+        notificationMap.put("com.whatsapp", Notification.WHATSAPP);
+        notificationMap.put("com.google.android.apps.inbox", Notification.INBOX);
+    }
+
+    /**
+     * Sprites
+     */
+
+    static int[][] getNotificationSprite(Notification notification) {
+        switch (notification) {
+            case DOTS:
+                return Sprites.get(Sprites.DOTS);
+            case EMAIL:
+                return Sprites.get(Sprites.EMAIL);
+            case GMAIL:
+                return Sprites.get(Sprites.GMAIL);
+            case HANGOUTS:
+                return Sprites.get(Sprites.HANGOUTS);
+            case TWITTER:
+                return Sprites.get(Sprites.TWITTER);
+            case MISSED_CALL:
+                return Sprites.get(Sprites.MISSED_CALL);
+            case MMS:
+                return Sprites.get(Sprites.MMS);
+            case VOICEMAIL:
+                return Sprites.get(Sprites.VOICEMAIL);
+            case SNAPCHAT:
+                return Sprites.get(Sprites.SNAPCHAT);
+            case FACEBOOK:
+                return Sprites.get(Sprites.FACEBOOK);
+            case COUPLES:
+                return Sprites.get(Sprites.COUPLES);
+            case KIK:
+                return Sprites.get(Sprites.KIK);
+            case FB_MESSENGER:
+                return Sprites.get(Sprites.FACEBOOK_MESSENGER);
+            case GROUPME:
+                return Sprites.get(Sprites.GROUP_ME);
+            case GPLUS:
+                return Sprites.get(Sprites.G_PLUS);
+            case INBOX:
+                return Sprites.get(Sprites.INBOX);
+            case LMMS:
+                return Sprites.get(Sprites.LMMS);
+            case INSTAGRAM:
+                return Sprites.get(Sprites.INSTAGRAM);
+            case WHATSAPP:
+                return Sprites.get(Sprites.WHATSAPP);
+            case TAPATALK:
+                return Sprites.get(Sprites.TAPATALK);
+            default:
+                return null;
+        }
+    }
+
+    static int[][] getNumSprite(char c) {
+        return Sprites.get(c >= '0' && c <= '9' ? Sprites.BIG_0 + (c - '0') : Sprites.BIG_NULL);
+    }
+
+    // Small font sprite ids indexed by character, SMALL_NULL where there is none
+    private static final byte[] sSmallChars = new byte[128];
+
+    static {
+        Arrays.fill(sSmallChars, (byte) Sprites.SMALL_NULL);
+        for (int i = 0; i < 10; i++) {
+            sSmallChars['0' + i] = (byte) (Sprites.SMALL_0 + i);
+        }
+        for (int i = 0; i < 26; i++) {
+            sSmallChars['a' + i] = (byte) (Sprites.SMALL_A + i);
+        }
+        sSmallChars[' '] = Sprites.SMALL_SPACE;
+        sSmallChars['.'] = Sprites.SMALL_PERIOD;
+        sSmallChars[','] = Sprites.SMALL_COMMA;
+        sSmallChars[':'] = Sprites.SMALL_COLON;
+        sSmallChars['\''] = Sprites.SMALL_APOSTROPHE;
+        sSmallChars['"'] = Sprites.SMALL_QUOTE;
+        sSmallChars['!'] = Sprites.SMALL_EXCLAMATION;
+        sSmallChars['?'] = Sprites.SMALL_QUESTION;
+        sSmallChars['-'] = Sprites.SMALL_MINUS;
+        sSmallChars['_'] = Sprites.SMALL_UNDERSCORE;
+        sSmallChars['+'] = Sprites.SMALL_PLUS;
+        sSmallChars['*'] = Sprites.SMALL_STAR;
+        sSmallChars['/'] = Sprites.SMALL_SLASH;
+        sSmallChars['&'] = Sprites.SMALL_AMPERSAND;
+        sSmallChars['('] = Sprites.SMALL_PAREN_LEFT;
+        sSmallChars[')'] = Sprites.SMALL_PAREN_RIGHT;
+        sSmallChars['#'] = Sprites.SMALL_HASH;
+    }
+
+    private static int getSmallCharId(char c) {
+        return c < sSmallChars.length ? sSmallChars[c] : Sprites.SMALL_NULL;
+    }
+
+    static int[][] getSmallCharSprite(char c) {
+        return Sprites.get(getSmallCharId(c));
+    }
+
+    /**
+     * Width in dots of a small font glyph, not counting the gap after it
+     */
+    static int getSmallCharWidth(char c) {
+        return Sprites.getWidth(getSmallCharId(c));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Reacts to cover, call, alarm, screen and touch events by updating the
+ * status and asking the host to act on the system.
+ *
+ * All decisions live here and every side effect goes through Host, so the
+ * same event sequence always leads to the same calls.  That makes recorded
+ * sequences replayable on a plain JVM.  Must be called from one thread.
+ */
+class DotcaseController {
+    // Minimum vertical scroll distance taken as a swipe
+    static final float SWIPE_DISTANCE = 60;
+
+    interface Host {
+        /**
+         * Current time on a monotonic clock, in milliseconds.
+         */
+        long uptimeMillis();
+
+        /**
+         * Brings up the dot display after the cover was closed.
+         */
+        void launchCoverDisplay();
+
+        /**
+         * Brings the dot display to the front.
+         */
+        void launchDisplay();
+
+        /**
+         * Takes the dot display down after the cover was opened.
+         */
+        void dismissDisplay();
+
+        /**
+         * Keeps the dot display in front for as long as the status is on top.
+         */
+        void keepOnTop();
+
+        /**
+         * Lets other activities come in front of the dot display again.
+         */
+        void stopKeepingOnTop();
+
+        /**
+         * Returns the display name for a number if it is known right away.
+         */
+        String getCachedCallerName(String number);
+
+        /**
+         * Looks up a caller name, the result being reported through
+         * onCallerResolved().
+         */
+        void resolveCallerName(String number);
+
+        void answerCall();
+
+        void endCall();
+
+        void snoozeAlarm();
+
+        void dismissAlarm();
+
+        void requestFrame();
+
+        /**
+         * Restarts the screen timeout from now.
+         */
+        void resetSleepTimer();
+    }
+
+    private final DotcaseStatus mStatus;
+    private final Host mHost;
+    private final CoverStateMachine mCoverState;
+    private EventLog.Writer mRecorder;
+
+    /**
+     * @param coverSettle settle window of the cover state machine, in
+     *                    milliseconds
+     */
+    DotcaseController(DotcaseStatus status, Host host, long coverSettle) {
+        mStatus = status;
+        mHost = host;
+        mCoverState = new CoverStateMachine(coverSettle);
+    }
+
+    /**
+     * Records every following event to the given log, or stops recording if
+     * null.
+     */
+    void setRecorder(EventLog.Writer recorder) {
+        mRecorder = recorder;
+    }
+
+    /**
+     * Feeds a raw cover event through the cover state machine.  The caller
+     * must call onCoverSettle() at getCoverState().getSettleTime() while a
+     * change is pending.
+     *
+     * @return true if the display was brought up or taken down right away
+     */
+    boolean onCoverEvent(boolean closed) {
+        record(EventLog.COVER, closed ? 1 : 0, null, null);
+        if (!mCoverState.onEvent(closed, mHost.uptimeMillis())) {
+            return false;
+        }
+        onCoverChanged(closed);
+        return true;
+    }
+
+    /**
+     * Acts on the cover state a settle window ended in.
+     */
+    void onCoverSettle() {
+        if (mCoverState.onSettle(mHost.uptimeMillis())) {
+            onCoverChanged(mCoverState.isClosed());
+        }
+    }
+
+    CoverStateMachine getCoverState() {
+        return mCoverState;
+    }
+
+    void onScreenOn() {
+        record(EventLog.SCREEN_ON, 0, null, null);
+        mHost.resetSleepTimer();
+        mHost.requestFrame();
+        mHost.launchDisplay();
+    }
+
+    void onRinging(String number) {
+        record(EventLog.RINGING, 0, number, null);
+        if (number == null) {
+            number = "";
+        }
+
+        if (number.equalsIgnoreCase("restricted")) {
+            // If call is restricted, don't show a number
+            mStatus.startRinging("", Transliterator.transliterate(number) + "  ");
+        } else {
+            // Show the number right away, the name follows once resolved
+            String name = mHost.getCachedCallerName(number);
+            mStatus.startRinging(number, name != null ? name : "  ");
+            if (name == null) {
+                mHost.resolveCallerName(number);
+            }
+        }
+
+        mStatus.setOnTop(true);
+        mHost.keepOnTop();
+        mHost.requestFrame();
+        mHost.resetSleepTimer();
+    }
+
+    void onCallerResolved(String number, String name) {
+        record(EventLog.CALLER_RESOLVED, 0, number, name);
+        if (mStatus.setCallerName(number, name)) {
+            mHost.requestFrame();
+        }
+    }
+
+    void onCallIdle() {
+        record(EventLog.CALL_IDLE, 0, null, null);
+        mStatus.setOnTop(false);
+        mStatus.stopRinging();
+        mHost.stopKeepingOnTop();
+        mHost.requestFrame();
+        mHost.resetSleepTimer();
+    }
+
+    void onAlarm() {
+        record(EventLog.ALARM, 0, null, null);
+        mStatus.startAlarm();
+        mStatus.setOnTop(true);
+        mHost.keepOnTop();
+        mHost.requestFrame();
+        mHost.resetSleepTimer();
+    }
+
+    /**
+     * @param distance vertical scroll distance, positive when moving up
+     */
+    void onSwipe(float distance) {
+        record(EventLog.SWIPE, Math.round(distance), null, null);
+        if (Math.abs(distance) <= SWIPE_DISTANCE) {
+            return;
+        }
+
+        if (mStatus.isRinging()) {
+            mStatus.setOnTop(false);
+            mHost.stopKeepingOnTop();
+            if (distance < 0) {
+                mHost.endCall();
+            } else {
+                mHost.answerCall();
+            }
+        } else if (mStatus.isAlarm()) {
+            mStatus.setOnTop(false);
+            mHost.stopKeepingOnTop();
+            if (distance < 0) {
+                mHost.dismissAlarm();
+            } else {
+                mHost.snoozeAlarm();
+            }
+            mStatus.stopAlarm();
+            mHost.requestFrame();
+            mHost.resetSleepTimer();
+        }
+    }
+
+    void onTap() {
+        record(EventLog.TAP, 0, null, null);
+        mHost.resetSleepTimer();
+    }
+
+    private void onCoverChanged(boolean closed) {
+        if (closed) {
+            mHost.launchCoverDisplay();
+        } else {
+            mHost.dismissDisplay();
+        }
+    }
+
+    private void record(int type, int value, String first, String second) {
+        if (mRecorder != null) {
+            mRecorder.write(mHost.uptimeMillis(), type, value, first, second);
+        }
+    }
+}
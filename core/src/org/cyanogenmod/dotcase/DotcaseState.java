@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of everything the dot display depends on.
+ *
+ * DotcaseStatus publishes a new snapshot for every change, so a reader holding
+ * one sees a consistent set of values without taking any lock.
+ */
+class DotcaseState {
+    static final DotcaseState INITIAL = new Builder().build();
+
+    final boolean pocketed;
+    final boolean onTop;
+
+    final boolean ringing;
+    final String callerNumber;
+    final String callerName;
+    final boolean alarm;
+
+    final int hour;
+    final int minute;
+    final boolean is24Hour;
+
+    // Charge between 0 and 1, or -1 if unknown
+    final double batteryLevel;
+    final boolean plugged;
+
+    final List<Notification> notifications;
+
+    private DotcaseState(Builder b) {
+        pocketed = b.pocketed;
+        onTop = b.onTop;
+        ringing = b.ringing;
+        callerNumber = b.callerNumber;
+        callerName = b.callerName;
+        alarm = b.alarm;
+        hour = b.hour;
+        minute = b.minute;
+        is24Hour = b.is24Hour;
+        batteryLevel = b.batteryLevel;
+        plugged = b.plugged;
+        notifications = b.notifications;
+    }
+
+    Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    static final class Builder {
+        boolean pocketed = false;
+        boolean onTop = false;
+        boolean ringing = false;
+        String callerNumber = "";
+        String callerName = "";
+        boolean alarm = false;
+        int hour = 0;
+        int minute = 0;
+        boolean is24Hour = false;
+        double batteryLevel = -1;
+        boolean plugged = false;
+        List<Notification> notifications = Collections.emptyList();
+
+        Builder() {
+        }
+
+        Builder(DotcaseState s) {
+            pocketed = s.pocketed;
+            onTop = s.onTop;
+            ringing = s.ringing;
+            callerNumber = s.callerNumber;
+            callerName = s.callerName;
+            alarm = s.alarm;
+            hour = s.hour;
+            minute = s.minute;
+            is24Hour = s.is24Hour;
+            batteryLevel = s.batteryLevel;
+            plugged = s.plugged;
+            notifications = s.notifications;
+        }
+
+        DotcaseState build() {
+            return new DotcaseState(this);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared state of the dot display.
+ *
+ * The state lives in an immutable DotcaseState that is replaced as a whole on
+ * every change.  Writers are serialized on this object and copy the current
+ * snapshot; readers never lock and should grab one snapshot per frame with
+ * getState() instead of calling several getters.
+ */
+public class DotcaseStatus {
+
+    private final AtomicReference<DotcaseState> mState =
+            new AtomicReference<DotcaseState>(DotcaseState.INITIAL);
+
+    DotcaseState getState() {
+        return mState.get();
+    }
+
+    private DotcaseState.Builder edit() {
+        return mState.get().buildUpon();
+    }
+
+    private void publish(DotcaseState.Builder builder) {
+        mState.set(builder.build());
+    }
+
+    boolean isPocketed() {
+        return mState.get().pocketed;
+    }
+
+    synchronized void setPocketed(boolean val) {
+        DotcaseState.Builder b = edit();
+        b.pocketed = val;
+        publish(b);
+    }
+
+    boolean isOnTop() {
+        return mState.get().onTop;
+    }
+
+    synchronized void setOnTop(boolean val) {
+        DotcaseState.Builder b = edit();
+        b.onTop = val;
+        publish(b);
+    }
+
+    synchronized void startRinging(String number, String name) {
+        DotcaseState.Builder b = edit();
+        b.callerName = name;
+        startRinging(b, number);
+    }
+
+    synchronized void startRinging(String number) {
+        startRinging(edit(), number);
+    }
+
+    private void startRinging(DotcaseState.Builder b, String number) {
+        b.ringing = true;
+        b.callerNumber = number;
+        publish(b);
+    }
+
+    /**
+     * Fills in the caller name once it has been looked up, unless the call
+     * it belongs to is already over.
+     *
+     * @return true if the name changed
+     */
+    synchronized boolean setCallerName(String number, String name) {
+        DotcaseState.Builder b = edit();
+        if (!b.ringing || !b.callerNumber.equals(number) || b.callerName.equals(name)) {
+            return false;
+        }
+        b.callerName = name;
+        publish(b);
+        return true;
+    }
+
+    synchronized void stopRinging() {
+        DotcaseState.Builder b = edit();
+        b.ringing = false;
+        b.callerNumber = "";
+        b.callerName = "";
+        publish(b);
+    }
+
+    synchronized void startAlarm() {
+        DotcaseState.Builder b = edit();
+        b.alarm = true;
+        publish(b);
+    }
+
+    synchronized void stopAlarm() {
+        DotcaseState.Builder b = edit();
+        b.alarm = false;
+        publish(b);
+    }
+
+    boolean isRinging() {
+        return mState.get().ringing;
+    }
+
+    boolean isAlarm() {
+        return mState.get().alarm;
+    }
+
+    /**
+     * @return true if the displayed time changed
+     */
+    synchronized boolean setTime(int hour, int minute, boolean is24Hour) {
+        DotcaseState.Builder b = edit();
+        if (hour == b.hour && minute == b.minute && is24Hour == b.is24Hour) {
+            return false;
+        }
+        b.hour = hour;
+        b.minute = minute;
+        b.is24Hour = is24Hour;
+        publish(b);
+        return true;
+    }
+
+    /**
+     * @param level charge between 0 and 1, or -1 if unknown
+     * @return true if the battery status changed
+     */
+    synchronized boolean setBattery(double level, boolean plugged) {
+        DotcaseState.Builder b = edit();
+        if (level == b.batteryLevel && plugged == b.plugged) {
+            return false;
+        }
+        b.batteryLevel = level;
+        b.plugged = plugged;
+        publish(b);
+        return true;
+    }
+
+    boolean isPlugged() {
+        return mState.get().plugged;
+    }
+
+    /**
+     * @param notifications ordered icons to show, must not be modified later
+     * @return true if the list of notifications changed
+     */
+    synchronized boolean setNotifications(List<Notification> notifications) {
+        DotcaseState.Builder b = edit();
+        if (notifications.equals(b.notifications)) {
+            return false;
+        }
+        b.notifications = notifications;
+        publish(b);
+        return true;
+    }
+}
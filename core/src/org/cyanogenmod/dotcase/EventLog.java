@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.Executor;
+
+/**
+ * Compact binary log of the events handled by DotcaseController.
+ *
+ * Layout: the int MAGIC, big endian, then one record per event:
+ *   varint  milliseconds since the previous event
+ *   byte    event type
+ *   ...     COVER: byte state, SWIPE: zigzag varint distance,
+ *           RINGING: string number, CALLER_RESOLVED: string number, string name
+ * Numbers are salted hashes and names are masked, see Writer.  Strings are
+ * a varint of their UTF-8 length plus one, 0 meaning null, followed by the
+ * bytes.
+ */
+final class EventLog {
+    static final int MAGIC = 0x44455654; // "DEVT"
+
+    // Event types
+    static final int COVER = 0;
+    static final int SCREEN_ON = 1;
+    static final int RINGING = 2;
+    static final int CALLER_RESOLVED = 3;
+    static final int CALL_IDLE = 4;
+    static final int ALARM = 5;
+    static final int SWIPE = 6;
+    static final int TAP = 7;
+
+    private EventLog() {
+    }
+
+    static final class Event {
+        long time;
+        int type;
+        int value;
+        String first;
+        String second;
+    }
+
+    /**
+     * Appends events to a stream.  Events are encoded into memory on the
+     * calling thread and only reach the stream through flush(), which the
+     * flusher runs once for each batch; close() flushes the rest.  Write
+     * errors stop the recording instead of disturbing the caller.
+     *
+     * Caller numbers and names are never stored: a number becomes a salted
+     * hash that is stable within one log, so the events of a call still
+     * match.  In a name every glyph as wide as "x" becomes "x", the others
+     * are kept, so the marquee lays it out and scrolls it the same.
+     */
+    static final class Writer {
+        private final OutputStream mOut;
+        private final Executor mFlusher;
+        private final Object mFlushLock = new Object();
+        private final byte[] mSalt = new byte[16];
+        private ByteArrayOutputStream mPending = new ByteArrayOutputStream();
+        private ByteArrayOutputStream mFlushing = new ByteArrayOutputStream();
+        private boolean mFlushScheduled;
+        private long mLastTime = -1;
+        private volatile boolean mFailed;
+
+        private final Runnable mFlush = new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+
+        /**
+         * @param flusher runs flush() for each new batch of events, or null to
+         *                only write on close()
+         */
+        Writer(OutputStream out, Executor flusher) {
+            mOut = out;
+            mFlusher = flusher;
+            new SecureRandom().nextBytes(mSalt);
+            writeInt(MAGIC);
+        }
+
+        synchronized void write(long time, int type, int value, String first, String second) {
+            if (mFailed) {
+                return;
+            }
+
+            writeVarint(mLastTime < 0 ? 0 : Math.max(time - mLastTime, 0));
+            mLastTime = time;
+            mPending.write(type);
+            switch (type) {
+                case COVER:
+                    mPending.write(value);
+                    break;
+                case SWIPE:
+                    writeVarint(((value << 1) ^ (value >> 31)) & 0xffffffffL);
+                    break;
+                case RINGING:
+                    writeString(hashNumber(first));
+                    break;
+                case CALLER_RESOLVED:
+                    writeString(hashNumber(first));
+                    writeString(maskName(second));
+                    break;
+            }
+            if (!mFlushScheduled && mFlusher != null) {
+                mFlushScheduled = true;
+                mFlusher.execute(mFlush);
+            }
+        }
+
+        /**
+         * Hands the pending events to the stream.  Blocks on I/O, so keep it
+         * off the main thread.
+         */
+        void flush() {
+            synchronized (mFlushLock) {
+                ByteArrayOutputStream batch;
+                synchronized (this) {
+                    batch = mPending;
+                    mPending = mFlushing;
+                    mFlushing = batch;
+                    mFlushScheduled = false;
+                }
+                try {
+                    if (!mFailed) {
+                        batch.writeTo(mOut);
+                        mOut.flush();
+                    }
+                } catch (IOException e) {
+                    mFailed = true;
+                }
+                batch.reset();
+            }
+        }
+
+        boolean hasFailed() {
+            return mFailed;
+        }
+
+        void close() {
+            flush();
+            try {
+                mOut.close();
+            } catch (IOException e) {
+                mFailed = true;
+            }
+        }
+
+        private String hashNumber(String number) {
+            if (number == null || number.isEmpty() || number.equalsIgnoreCase("restricted")) {
+                return number;
+            }
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            digest.update(mSalt);
+            byte[] hash = digest.digest(number.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder("#");
+            for (int i = 0; i < 6; i++) {
+                builder.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+                builder.append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return builder.toString();
+        }
+
+        private static String maskName(String name) {
+            if (name == null) {
+                return null;
+            }
+            int maskWidth = DotcaseConstants.getSmallCharWidth('x');
+            char[] chars = name.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                if (DotcaseConstants.getSmallCharWidth(chars[i]) == maskWidth) {
+                    chars[i] = 'x';
+                }
+            }
+            return new String(chars);
+        }
+
+        private void writeInt(int value) {
+            mPending.write(value >>> 24);
+            mPending.write(value >>> 16);
+            mPending.write(value >>> 8);
+            mPending.write(value);
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                mPending.write((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            mPending.write((int) value);
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            mPending.write(bytes, 0, bytes.length);
+        }
+    }
+
+    static final class Reader {
+        private final InputStream mIn;
+        private long mTime;
+
+        Reader(InputStream in) throws IOException {
+            mIn = in;
+            if (readInt() != MAGIC) {
+                throw new IOException("Not an event log");
+            }
+        }
+
+        /**
+         * Reads the next event into the given one.
+         *
+         * @return false at the end of the log
+         */
+        boolean next(Event event) throws IOException {
+            int first = mIn.read();
+            if (first < 0) {
+                return false;
+            }
+
+            mTime += readVarint(first);
+            event.time = mTime;
+            event.type = readByte();
+            event.value = 0;
+            event.first = null;
+            event.second = null;
+            switch (event.type) {
+                case COVER:
+                    event.value = readByte();
+                    break;
+                case SWIPE:
+                    long zigzag = readVarint(readByte());
+                    event.value = (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+                    break;
+                case RINGING:
+                    event.first = readString();
+                    break;
+                case CALLER_RESOLVED:
+                    event.first = readString();
+                    event.second = readString();
+                    break;
+                case SCREEN_ON:
+                case CALL_IDLE:
+                case ALARM:
+                case TAP:
+                    break;
+                default:
+                    throw new IOException("Unknown event type " + event.type);
+            }
+            return true;
+        }
+
+        private int readByte() throws IOException {
+            int value = mIn.read();
+            if (value < 0) {
+                throw new EOFException("Truncated event log");
+            }
+            return value;
+        }
+
+        private int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        private long readVarint(int first) throws IOException {
+            long value = first & 0x7f;
+            int shift = 7;
+            int b = first;
+            while ((b & 0x80) != 0) {
+                b = readByte();
+                value |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            }
+            return value;
+        }
+
+        private String readString() throws IOException {
+            int length = (int) readVarint(readByte()) - 1;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int count = mIn.read(bytes, read, length - read);
+                if (count < 0) {
+                    throw new EOFException("Truncated event log");
+                }
+                read += count;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lays out the clock, notification, battery, ringer and alarm screens
+ * onto a DotFrame.  Shared by every rendering backend.
+ */
+class FrameComposer {
+    // Frame interval of screens that only change on events
+    static final long FRAME_INTERVAL_NONE = -1;
+
+    // Time each of notifications and battery stay up on the clock screen
+    private static final long PAGE_INTERVAL = 1500;
+
+    // Blank dots between two glyphs of the small font
+    private static final int SMALL_CHAR_SPACING = 1;
+
+    private static final int ANIMATION_NONE = 0;
+    private static final int ANIMATION_RINGER = 1;
+    private static final int ANIMATION_ALARM = 2;
+
+    // Keyframe channels of the ringer and alarm timelines
+    private static final int KEY_WAVE = 0;
+    private static final int KEY_LIGHT = 1;
+    private static final int KEY_DARK = 2;
+    private static final int KEY_TRANSFORM = 3;
+    private static final int KEY_HINT = 4;
+
+    // One step every half second: the waves run up once, then down once
+    // with the handset flipped over
+    private static final Timeline RINGER_TIMELINE;
+    // The waves run up twice under the snooze hint, then down twice under
+    // the dismiss hint
+    private static final Timeline ALARM_TIMELINE;
+
+    static {
+        int[][] ringer = new int[6][];
+        for (int i = 0; i < ringer.length; i++) {
+            boolean down = i >= 3;
+            ringer[i] = new int[] {
+                3 - i % 3, down ? 2 : 3, down ? 11 : 10, down ? DotFrame.FLIP_V : 0, 0
+            };
+        }
+        RINGER_TIMELINE = Timeline.uniform(ringer, 3000);
+
+        int[][] alarm = new int[12][];
+        for (int i = 0; i < alarm.length; i++) {
+            boolean down = i >= 6;
+            alarm[i] = new int[] {
+                3 - i % 3, 7, 12, down ? DotFrame.FLIP_V : 0,
+                down ? Sprites.ALARM_CANCEL : Sprites.SNOOZE
+            };
+        }
+        ALARM_TIMELINE = Timeline.uniform(alarm, 6000);
+    }
+
+    // Blank dots between the end and the start of a scrolling caller name
+    private static final int NAME_GAP = 6;
+
+    private final Marquee mNameMarquee = new Marquee(DotFrame.WIDTH, NAME_GAP);
+    private int mAnimation = ANIMATION_NONE;
+    private long mAnimationStart;
+    private String mCallerName;
+
+    // Scratch state reused by every frame so that animating allocates nothing
+    private final timeObject mTime = new timeObject();
+    private final int[] mRingerColors = new int[4];
+    private final int[] mHandsetColors = new int[DotFrame.COLORS];
+    private final int[] mClockColors = new int[DotFrame.COLORS];
+
+    /**
+     * Composes the screen matching a status snapshot onto a cleared frame.
+     *
+     * @param now current time on a monotonic clock, in milliseconds
+     * @return the delay in milliseconds before this screen needs a new frame,
+     *         or FRAME_INTERVAL_NONE if it only changes on events
+     */
+    long compose(DotcaseState state, DotFrame frame, long now) {
+        if (state.alarm) {
+            long elapsed = getAnimationTime(ANIMATION_ALARM, now);
+            drawAlarm(state, frame, elapsed);
+            return ALARM_TIMELINE.timeToNextKey(elapsed);
+        } else if (state.ringing) {
+            long elapsed = getAnimationTime(ANIMATION_RINGER, now);
+            drawName(state, frame, now);
+            drawNumber(state, frame);
+            drawRinger(state, frame, elapsed);
+            long delay = RINGER_TIMELINE.timeToNextKey(elapsed);
+            return mNameMarquee.isScrolling() ? Math.min(delay, Marquee.STEP_INTERVAL) : delay;
+        }
+        mAnimation = ANIMATION_NONE;
+
+        drawTime(state, frame);
+
+        if (!state.notifications.isEmpty()) {
+            // Notifications and battery take turns
+            if ((now / PAGE_INTERVAL) % 2 == 0) {
+                drawNotifications(state, frame);
+            } else {
+                drawBattery(state, frame);
+            }
+            return PAGE_INTERVAL - now % PAGE_INTERVAL;
+        }
+
+        // Low power clock: keep the frame until the time, battery or
+        // notifications change
+        drawBattery(state, frame);
+        return FRAME_INTERVAL_NONE;
+    }
+
+    /**
+     * Returns the time since the given animation started showing.
+     */
+    private long getAnimationTime(int animation, long now) {
+        if (mAnimation != animation) {
+            mAnimation = animation;
+            mAnimationStart = now;
+        }
+        return now - mAnimationStart;
+    }
+
+    private timeObject getTimeObject(DotcaseState state) {
+        timeObject timeObj = mTime;
+        timeObj.hour = state.hour;
+        timeObj.min = state.minute;
+
+        if (state.is24Hour) {
+            timeObj.is24Hour = true;
+        } else {
+            timeObj.is24Hour = false;
+            if (timeObj.hour > 11) {
+                if (timeObj.hour > 12) {
+                    timeObj.hour = timeObj.hour - 12;
+                }
+                timeObj.am = false;
+            } else {
+                if (timeObj.hour == 0) {
+                    timeObj.hour = 12;
+                }
+                timeObj.am = true;
+            }
+        }
+
+        timeObj.timeString[0] = timeObj.hour < 10 ? ' ' : (char) ('0' + timeObj.hour / 10);
+        timeObj.timeString[1] = (char) ('0' + timeObj.hour % 10);
+        timeObj.timeString[2] = (char) ('0' + timeObj.min / 10);
+        timeObj.timeString[3] = (char) ('0' + timeObj.min % 10);
+        return timeObj;
+    }
+
+    private void drawAlarm(DotcaseState state, DotFrame frame, long elapsed) {
+        timeObject time = getTimeObject(state);
+        int key = ALARM_TIMELINE.sample(elapsed);
+        int light = ALARM_TIMELINE.get(key, KEY_LIGHT);
+
+        setRingerColors(ALARM_TIMELINE.get(key, KEY_WAVE), light,
+                ALARM_TIMELINE.get(key, KEY_DARK));
+        setSolidColors(mClockColors, light);
+
+        dotcaseDrawSprite(DotcaseConstants.getSmallCharSprite(time.timeString[0]), 0, 0, frame);
+        dotcaseDrawSprite(DotcaseConstants.getSmallCharSprite(time.timeString[1]), 4, 0, frame);
+        dotcaseDrawSprite(Sprites.get(Sprites.SMALL_TIME_COLON), 8, 1, frame);
+        dotcaseDrawSprite(DotcaseConstants.getSmallCharSprite(time.timeString[2]), 11, 0, frame);
+        dotcaseDrawSprite(DotcaseConstants.getSmallCharSprite(time.timeString[3]), 15, 0, frame);
+        frame.blit(Sprites.get(Sprites.CLOCK), 7, 7, 0, mClockColors);
+
+        if (!time.is24Hour) {
+            if (time.am) {
+                dotcaseDrawSprite(Sprites.get(Sprites.AM), 18, 0, frame);
+            } else {
+                dotcaseDrawSprite(Sprites.get(Sprites.PM), 18, 0, frame);
+            }
+        }
+
+        dotcaseDrawSprite(Sprites.get(ALARM_TIMELINE.get(key, KEY_HINT)), 2, 21, frame);
+        frame.blit(Sprites.get(Sprites.RINGER), 7, 28,
+                ALARM_TIMELINE.get(key, KEY_TRANSFORM), mRingerColors);
+    }
+
+    private void drawNotifications(DotcaseState state, DotFrame frame) {
+        int count = 0;
+        int x = 1;
+        int y = 30;
+
+        List<Notification> notifications = state.notifications;
+        for (int i = 0; i < notifications.size(); i++) {
+            int[][] sprite = DotcaseConstants.getNotificationSprite(notifications.get(i));
+            if (sprite != null) {
+                dotcaseDrawSprite(sprite, x + ((count % 3) * 9), y + ((count / 3) * 9), frame);
+                count++;
+            }
+        }
+    }
+
+    private void drawRinger(DotcaseState state, DotFrame frame, long elapsed) {
+        int key = RINGER_TIMELINE.sample(elapsed);
+        int light = RINGER_TIMELINE.get(key, KEY_LIGHT);
+        int transform = RINGER_TIMELINE.get(key, KEY_TRANSFORM);
+
+        setRingerColors(RINGER_TIMELINE.get(key, KEY_WAVE), light,
+                RINGER_TIMELINE.get(key, KEY_DARK));
+        setSolidColors(mHandsetColors, light);
+
+        frame.blit(Sprites.get(Sprites.HANDSET), 6, 21, transform, mHandsetColors);
+        frame.blit(Sprites.get(Sprites.RINGER), 7, 28, transform, mRingerColors);
+    }
+
+    /**
+     * Lights one wave of the ringer sprite, whose waves are numbered 1 to 3
+     * from the top.
+     */
+    private void setRingerColors(int litWave, int light, int dark) {
+        mRingerColors[0] = 0;
+        for (int wave = 1; wave < mRingerColors.length; wave++) {
+            mRingerColors[wave] = wave == litWave ? light : dark;
+        }
+    }
+
+    /**
+     * Draws every color of a template sprite but black with a single color.
+     */
+    private void setSolidColors(int[] colors, int color) {
+        Arrays.fill(colors, color);
+        colors[0] = 0;
+    }
+
+    private void drawBattery(DotcaseState state, DotFrame frame) {
+        double level = state.batteryLevel;
+
+        dotcaseDrawSprite(Sprites.get(Sprites.BATTERY_OUTLINE), 1, 35, frame);
+
+        // 4.34 percents per dot
+        int fillDots = (int)Math.round((level * 100) / 4.34);
+        int color;
+
+        if (level >= .50) {
+            color = 3;
+        } else if (level >= .25) {
+            color = 5;
+        } else {
+            color = 2;
+        }
+
+        for (int i = 0; i < fillDots; i++) {
+            if (i == 22) {
+                dotcaseDrawRect(2 + i, 39, 3 + i, 43, color, frame);
+            } else {
+                dotcaseDrawRect(2 + i, 36, 3 + i, 46, color, frame);
+            }
+        }
+
+        if (state.plugged) {
+            dotcaseDrawSprite(Sprites.get(Sprites.LIGHTNING), 9, 36, frame);
+        }
+    }
+
+    private void drawTime(DotcaseState state, DotFrame frame) {
+        timeObject time = getTimeObject(state);
+        int starter;
+
+        if (time.hour < 10) {
+            starter = 0;
+        } else {
+            starter = 3;
+        }
+
+        if (!time.is24Hour) {
+            if (time.am) {
+                dotcaseDrawSprite(Sprites.get(Sprites.AM), 3, 18, frame);
+            } else {
+                dotcaseDrawSprite(Sprites.get(Sprites.PM), 3, 18, frame);
+            }
+        }
+
+        dotcaseDrawSprite(Sprites.get(Sprites.TIME_COLON), starter + 10, 5 + 4, frame);
+        dotcaseDrawSprite(DotcaseConstants.getNumSprite(time.timeString[0]),
+                starter, 5, frame);
+        dotcaseDrawSprite(DotcaseConstants.getNumSprite(time.timeString[1]),
+                starter + 5, 5, frame);
+        dotcaseDrawSprite(DotcaseConstants.getNumSprite(time.timeString[2]),
+                starter + 12, 5, frame);
+        dotcaseDrawSprite(DotcaseConstants.getNumSprite(time.timeString[3]),
+                starter + 17, 5, frame);
+    }
+
+    private void dotcaseDrawRect(int left, int top, int right,
+                                 int bottom, int color, DotFrame frame) {
+        frame.fillRect(left, top, right, bottom, color);
+    }
+
+    private void dotcaseDrawSprite(int[][] sprite, int x, int y, DotFrame frame) {
+        frame.blit(sprite, x, y);
+    }
+
+    private void drawName(DotcaseState state, DotFrame frame, long now) {
+        int x = 0, y = 2;
+        if (state.ringing) {
+            String name = state.callerName;
+            if (!name.equals(mCallerName)) {
+                // The last two characters are spaces that used to separate the loops
+                mCallerName = name;
+                mNameMarquee.setText(name.substring(0, Math.max(name.length() - 2, 0)), now);
+            }
+            mNameMarquee.draw(frame, x, y, now);
+        }
+    }
+
+    private void drawNumber(DotcaseState state, DotFrame frame) {
+        int x = 0, y = 8;
+        if (state.ringing) {
+            String number = state.callerNumber;
+            for (int i = 3; i < number.length() && x < DotFrame.WIDTH; i++) {
+                x = drawSmallChar(number.charAt(i), x, y, frame);
+            }
+        }
+    }
+
+    /**
+     * Draws a small font glyph and returns where the next one starts.
+     */
+    private int drawSmallChar(char c, int x, int y, DotFrame frame) {
+        dotcaseDrawSprite(DotcaseConstants.getSmallCharSprite(c), x, y, frame);
+        return x + DotcaseConstants.getSmallCharWidth(c) + SMALL_CHAR_SPACING;
+    }
+
+    private static class timeObject {
+        final char[] timeString = new char[4];
+        int hour;
+        int min;
+        boolean is24Hour;
+        boolean am;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Histogram of latencies in microseconds.
+ *
+ * Buckets grow exponentially with four buckets per power of two, so any
+ * recorded value is known within 25% while the whole range of a long fits
+ * in a fixed table.  Recording allocates nothing.  Thread safe.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = SUB_BUCKETS * 63;
+
+    private final long[] mCounts = new long[BUCKETS];
+    private long mCount;
+    private long mTotal;
+    private long mMax;
+
+    synchronized void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        mCounts[bucketOf(micros)]++;
+        mCount++;
+        mTotal += micros;
+        mMax = Math.max(mMax, micros);
+    }
+
+    synchronized long getCount() {
+        return mCount;
+    }
+
+    synchronized long getMean() {
+        return mCount > 0 ? mTotal / mCount : 0;
+    }
+
+    synchronized long getMax() {
+        return mMax;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the recorded values.
+     *
+     * @param percentile between 0 and 100
+     */
+    synchronized long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(mCount * percentile / 100), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += mCounts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    synchronized void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            mCounts[i] = 0;
+        }
+        mCount = 0;
+        mTotal = 0;
+        mMax = 0;
+    }
+
+    /**
+     * Returns a one line summary with the values in milliseconds.
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("n=%d mean=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                mCount, getMean() / 1000f, getPercentile(50) / 1000f,
+                getPercentile(90) / 1000f, getPercentile(99) / 1000f, mMax / 1000f);
+    }
+
+    /**
+     * Values below SUB_BUCKETS get a bucket each, every following power of
+     * two is split into SUB_BUCKETS equal buckets.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return (exponent - 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        long sub = bucket % SUB_BUCKETS;
+        if (exponent >= 62) {
+            return Long.MAX_VALUE;
+        }
+        return ((SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.util.Arrays;
+
+/**
+ * Scrolling line of small font text.
+ *
+ * The text is rendered once into a strip sprite whenever it changes.  Text
+ * wider than the window scrolls one dot per step, and every frame is a single
+ * wrapping blit of the strip at the current offset.
+ */
+class Marquee {
+    // Time between two one dot scroll steps
+    static final long STEP_INTERVAL = 125;
+
+    // Time the start of the text stays still before the first and later loops
+    private static final long START_DELAY = 3000;
+    private static final long LOOP_DELAY = 1500;
+
+    private static final int GLYPH_SPACING = 1;
+
+    private final int mWidth;
+    private final int mGap;
+
+    private String mText;
+    private int[][] mStrip;
+    private int mStripWidth;
+    private boolean mScrolling;
+    private long mStartTime;
+
+    /**
+     * @param width dots available on the display
+     * @param gap blank dots between the end and the next start of the text
+     */
+    Marquee(int width, int gap) {
+        mWidth = width;
+        mGap = gap;
+    }
+
+    /**
+     * Renders new text into the strip and restarts scrolling.  Does nothing
+     * if the text is unchanged.
+     *
+     * @param now current SystemClock.uptimeMillis()
+     */
+    void setText(String text, long now) {
+        if (text.equals(mText)) {
+            return;
+        }
+        mText = text;
+        mStartTime = now;
+
+        int textWidth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            textWidth += DotcaseConstants.getSmallCharWidth(text.charAt(i)) + GLYPH_SPACING;
+        }
+        textWidth = Math.max(textWidth - GLYPH_SPACING, 0);
+
+        mScrolling = textWidth > mWidth;
+        mStripWidth = mScrolling ? textWidth + mGap : textWidth;
+        int height = Sprites.getHeight(Sprites.SMALL_NULL);
+        mStrip = new int[height][mStripWidth];
+
+        int x = 0;
+        for (int i = 0; i < height; i++) {
+            Arrays.fill(mStrip[i], -1);
+        }
+        for (int i = 0; i < text.length(); i++) {
+            int[][] glyph = DotcaseConstants.getSmallCharSprite(text.charAt(i));
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(glyph[row], 0, mStrip[row], x, glyph[row].length);
+            }
+            x += glyph[0].length + GLYPH_SPACING;
+        }
+    }
+
+    boolean isScrolling() {
+        return mScrolling;
+    }
+
+    void draw(DotFrame frame, int x, int y, long now) {
+        if (mStripWidth == 0) {
+            return;
+        }
+        if (!mScrolling) {
+            frame.blit(mStrip, x, y);
+            return;
+        }
+
+        int offset = 0;
+        long elapsed = now - mStartTime - START_DELAY;
+        if (elapsed > 0) {
+            long scrollTime = mStripWidth * STEP_INTERVAL;
+            long loop = elapsed % (scrollTime + LOOP_DELAY);
+            if (loop < scrollTime) {
+                offset = (int) (loop / STEP_INTERVAL);
+            }
+        }
+        frame.blitWrapped(mStrip, offset, x, y, mWidth);
+    }
+}
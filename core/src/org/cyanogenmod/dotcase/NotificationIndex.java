@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained set of notification types to show on the clock.
+ *
+ * Tracks which type every posted notification maps to and keeps a reference
+ * count per type, so each post or removal is a constant time update.  Types
+ * are ordered by when they first appeared, and the ready to draw list of at
+ * most six icons is rebuilt only when that order changes.
+ */
+class NotificationIndex {
+    // Icons that fit on the clock screen, the last one becomes DOTS on overflow
+    static final int MAX_ICONS = 6;
+
+    private final Map<String, Notification> mTypes = new HashMap<String, Notification>();
+    private final int[] mCounts = new int[Notification.values().length];
+    private final List<Notification> mOrder = new ArrayList<Notification>();
+    private List<Notification> mVisible = Collections.emptyList();
+
+    /**
+     * @return true if the visible list changed
+     */
+    synchronized boolean post(String key, String packageName) {
+        Notification type = DotcaseConstants.notificationMap.get(packageName);
+        Notification previous = type != null ? mTypes.put(key, type) : mTypes.remove(key);
+        if (previous == type) {
+            // An update to a notification we already know about
+            return false;
+        }
+
+        boolean changed = previous != null && release(previous);
+        if (type != null && mCounts[type.ordinal()]++ == 0) {
+            mOrder.add(type);
+            changed = true;
+        }
+        return changed && updateVisible();
+    }
+
+    /**
+     * @return true if the visible list changed
+     */
+    synchronized boolean remove(String key) {
+        Notification type = mTypes.remove(key);
+        return type != null && release(type) && updateVisible();
+    }
+
+    synchronized void clear() {
+        mTypes.clear();
+        mOrder.clear();
+        for (int i = 0; i < mCounts.length; i++) {
+            mCounts[i] = 0;
+        }
+        mVisible = Collections.emptyList();
+    }
+
+    /**
+     * Returns the ordered icons to draw.  The list is never modified.
+     */
+    synchronized List<Notification> getVisible() {
+        return mVisible;
+    }
+
+    private boolean release(Notification type) {
+        if (--mCounts[type.ordinal()] == 0) {
+            mOrder.remove(type);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean updateVisible() {
+        List<Notification> visible;
+        if (mOrder.size() > MAX_ICONS) {
+            visible = new ArrayList<Notification>(mOrder.subList(0, MAX_ICONS - 1));
+            visible.add(Notification.DOTS);
+        } else {
+            visible = new ArrayList<Notification>(mOrder);
+        }
+
+        if (visible.equals(mVisible)) {
+            return false;
+        }
+        mVisible = Collections.unmodifiableList(visible);
+        return true;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sprites compiled from core/sprites/sprites.txt by tools/spritec.
+ *
+ * The packed resource is only read the first time a sprite is needed, and
+ * each sprite is decoded into its int[][] form on first use and then kept.
+ * Decoded sprites must not be modified.
+ *
+ * Resource layout, all numbers big endian:
+ *   int     MAGIC
+ *   short   number of sprite ids
+ *   byte[2] width and height, per id
+ *   byte[]  one byte per dot, per id in row order: palette index plus one,
+ *           0 being transparent
+ */
+final class Sprites {
+    static final String RESOURCE = "/dotcase-sprites.bin";
+    static final int MAGIC = 0x44535052; // "DSPR"
+
+    // Ids shared with core/sprites/sprites.txt
+    // Notification sprites
+    static final int DOTS = 0;
+    static final int HANGOUTS = 1;
+    static final int G_PLUS = 2;
+    static final int MMS = 3;
+    static final int TWITTER = 4;
+    static final int VOICEMAIL = 5;
+    static final int MISSED_CALL = 6;
+    static final int EMAIL = 7;
+    static final int GMAIL = 8;
+    static final int SNAPCHAT = 9;
+    static final int FACEBOOK = 10;
+    static final int COUPLES = 11;
+    static final int KIK = 12;
+    static final int FACEBOOK_MESSENGER = 13;
+    static final int GROUP_ME = 14;
+    static final int INBOX = 15;
+    static final int LMMS = 16;
+    static final int INSTAGRAM = 17;
+    static final int WHATSAPP = 18;
+    static final int TAPATALK = 19;
+
+    // Big number sprites
+    static final int BIG_0 = 20;
+    static final int BIG_1 = 21;
+    static final int BIG_2 = 22;
+    static final int BIG_3 = 23;
+    static final int BIG_4 = 24;
+    static final int BIG_5 = 25;
+    static final int BIG_6 = 26;
+    static final int BIG_7 = 27;
+    static final int BIG_8 = 28;
+    static final int BIG_9 = 29;
+    static final int BIG_NULL = 30;
+
+    // Small number sprites
+    static final int SMALL_0 = 31;
+    static final int SMALL_1 = 32;
+    static final int SMALL_2 = 33;
+    static final int SMALL_3 = 34;
+    static final int SMALL_4 = 35;
+    static final int SMALL_5 = 36;
+    static final int SMALL_6 = 37;
+    static final int SMALL_7 = 38;
+    static final int SMALL_8 = 39;
+    static final int SMALL_9 = 40;
+    static final int SMALL_A = 41;
+    static final int SMALL_B = 42;
+    static final int SMALL_C = 43;
+    static final int SMALL_D = 44;
+    static final int SMALL_E = 45;
+    static final int SMALL_F = 46;
+    static final int SMALL_G = 47;
+    static final int SMALL_H = 48;
+    static final int SMALL_I = 49;
+    static final int SMALL_J = 50;
+    static final int SMALL_K = 51;
+    static final int SMALL_L = 52;
+    static final int SMALL_M = 53;
+    static final int SMALL_N = 54;
+    static final int SMALL_O = 55;
+    static final int SMALL_P = 56;
+    static final int SMALL_Q = 57;
+    static final int SMALL_R = 58;
+    static final int SMALL_S = 59;
+    static final int SMALL_T = 60;
+    static final int SMALL_U = 61;
+    static final int SMALL_V = 62;
+    static final int SMALL_W = 63;
+    static final int SMALL_X = 64;
+    static final int SMALL_Y = 65;
+    static final int SMALL_Z = 66;
+    static final int SMALL_NULL = 67;
+
+    // Small symbol sprites
+    static final int SMALL_SPACE = 68;
+    static final int SMALL_PERIOD = 69;
+    static final int SMALL_COMMA = 70;
+    static final int SMALL_COLON = 71;
+    static final int SMALL_APOSTROPHE = 72;
+    static final int SMALL_QUOTE = 73;
+    static final int SMALL_EXCLAMATION = 74;
+    static final int SMALL_QUESTION = 75;
+    static final int SMALL_MINUS = 76;
+    static final int SMALL_UNDERSCORE = 77;
+    static final int SMALL_PLUS = 78;
+    static final int SMALL_STAR = 79;
+    static final int SMALL_SLASH = 80;
+    static final int SMALL_AMPERSAND = 81;
+    static final int SMALL_PAREN_LEFT = 82;
+    static final int SMALL_PAREN_RIGHT = 83;
+    static final int SMALL_HASH = 84;
+
+    // Various sprites
+    static final int HANDSET = 85;
+    static final int RINGER = 86;
+    static final int LIGHTNING = 87;
+    static final int CLOCK = 88;
+    static final int SNOOZE = 89;
+    static final int ALARM_CANCEL = 90;
+    static final int TIME_COLON = 91;
+    static final int SMALL_TIME_COLON = 92;
+    static final int AM = 93;
+    static final int PM = 94;
+    static final int BATTERY_OUTLINE = 95;
+
+    static final int COUNT = 96;
+
+    private static final AtomicReferenceArray<int[][]> sSprites =
+            new AtomicReferenceArray<int[][]>(COUNT);
+
+    private Sprites() {
+    }
+
+    static int[][] get(int id) {
+        int[][] sprite = sSprites.get(id);
+        if (sprite == null) {
+            sprite = Data.INSTANCE.decode(id);
+            // Keep whichever copy got there first so sprites stay unique
+            if (!sSprites.compareAndSet(id, null, sprite)) {
+                sprite = sSprites.get(id);
+            }
+        }
+        return sprite;
+    }
+
+    static int getWidth(int id) {
+        return Data.INSTANCE.mWidths[id];
+    }
+
+    static int getHeight(int id) {
+        return Data.INSTANCE.mHeights[id];
+    }
+
+    /**
+     * Contents of the resource, loaded when first referenced.
+     */
+    private static final class Data {
+        static final Data INSTANCE = new Data();
+
+        final byte[] mWidths = new byte[COUNT];
+        final byte[] mHeights = new byte[COUNT];
+        final int[] mOffsets = new int[COUNT];
+        final byte[] mDots;
+
+        private Data() {
+            InputStream in = Sprites.class.getResourceAsStream(RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("Missing " + RESOURCE);
+            }
+
+            try {
+                DataInputStream data = new DataInputStream(in);
+                if (data.readInt() != MAGIC || data.readUnsignedShort() != COUNT) {
+                    throw new IllegalStateException("Mismatched " + RESOURCE);
+                }
+
+                int size = 0;
+                for (int id = 0; id < COUNT; id++) {
+                    mWidths[id] = data.readByte();
+                    mHeights[id] = data.readByte();
+                    mOffsets[id] = size;
+                    size += mWidths[id] * mHeights[id];
+                }
+                mDots = new byte[size];
+                data.readFully(mDots);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read " + RESOURCE, e);
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+
+        int[][] decode(int id) {
+            int[][] sprite = new int[mHeights[id]][mWidths[id]];
+            int offset = mOffsets[id];
+            for (int i = 0; i < sprite.length; i++) {
+                int[] row = sprite[i];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = (mDots[offset++] & 0xff) - 1;
+                }
+            }
+            return sprite;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Looping animation made of keyframes, each holding a fixed set of int
+ * channels such as colors or transforms.
+ *
+ * A timeline is sampled with the time elapsed since the animation started,
+ * so it runs at the same speed no matter how many frames get drawn.
+ */
+final class Timeline {
+    private final long mDuration;
+    private final long[] mTimes;
+    private final int[][] mKeys;
+
+    /**
+     * @param times start of every key in milliseconds, ascending and starting at 0
+     * @param keys channel values of every key
+     * @param duration length of one loop in milliseconds
+     */
+    Timeline(long[] times, int[][] keys, long duration) {
+        if (times.length == 0 || times.length != keys.length || times[0] != 0
+                || times[times.length - 1] >= duration) {
+            throw new IllegalArgumentException("Bad keyframes");
+        }
+        mTimes = times;
+        mKeys = keys;
+        mDuration = duration;
+    }
+
+    /**
+     * Builds a timeline of count keys spaced evenly over the loop.
+     */
+    static Timeline uniform(int[][] keys, long duration) {
+        long[] times = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            times[i] = duration * i / keys.length;
+        }
+        return new Timeline(times, keys, duration);
+    }
+
+    /**
+     * Returns the index of the key showing at the given time.
+     */
+    int sample(long elapsed) {
+        long position = positionOf(elapsed);
+        int key = mTimes.length - 1;
+        while (mTimes[key] > position) {
+            key--;
+        }
+        return key;
+    }
+
+    int get(int key, int channel) {
+        return mKeys[key][channel];
+    }
+
+    /**
+     * Returns the time in milliseconds until the key after the one showing
+     * at the given time.
+     */
+    long timeToNextKey(long elapsed) {
+        long position = positionOf(elapsed);
+        int next = sample(elapsed) + 1;
+        return (next < mTimes.length ? mTimes[next] : mDuration) - position;
+    }
+
+    private long positionOf(long elapsed) {
+        return elapsed < 0 ? 0 : elapsed % mDuration;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.text.Normalizer;
+
+/**
+ * Maps caller names onto the characters the small font can draw.
+ *
+ * Every character of the Latin, Greek and Cyrillic blocks, as well as the
+ * Vietnamese extensions, is resolved to its lowercase ASCII spelling once,
+ * when the class is loaded.  Typographic dashes and quotes become the plain
+ * punctuation the font has glyphs for.  Transliterating a name is then a single table
+ * lookup per character.  Full-width forms are folded onto ASCII first, and
+ * anything else is passed through lowercased.
+ */
+final class Transliterator {
+    // Latin, Latin-1, Latin Extended, IPA, Greek and Cyrillic
+    private static final char BASIC_END = 0x0500;
+    // Latin Extended Additional
+    private static final char EXTENDED_START = 0x1e00;
+    private static final char EXTENDED_END = 0x1f00;
+    // Dashes and typographic quotes
+    private static final char PUNCTUATION_START = 0x2010;
+    private static final char PUNCTUATION_END = 0x2020;
+    // Full-width ASCII variants
+    private static final char FULLWIDTH_START = 0xff01;
+    private static final char FULLWIDTH_END = 0xff5f;
+    private static final int FULLWIDTH_OFFSET = 0xfee0;
+
+    private static final String[] sBasic = new String[BASIC_END];
+    private static final String[] sExtended = new String[EXTENDED_END - EXTENDED_START];
+    private static final String[] sPunctuation = {
+        "-", "-", "-", "-", "-", "-", "", "_", "'", "'", "'", "'", "\"", "\"", "\"", "\""
+    };
+
+    // Letters that do not decompose into ASCII, all lowercase
+    private static final String[] SPECIAL = {
+        "æ", "ae", "ð", "d", "ø", "o", "þ", "th", "ß", "ss", "œ", "oe",
+        "đ", "d", "ħ", "h", "ı", "i", "ĸ", "k", "ŀ", "l", "ł", "l", "ŋ", "ng",
+        "ŧ", "t", "ƀ", "b", "ƒ", "f", "ƚ", "l", "ȥ", "z", "ə", "e",
+        // Greek
+        "α", "a", "β", "v", "γ", "g", "δ", "d", "ε", "e", "ζ", "z", "η", "i",
+        "θ", "th", "ι", "i", "κ", "k", "λ", "l", "μ", "m", "ν", "n", "ξ", "x",
+        "ο", "o", "π", "p", "ρ", "r", "σ", "s", "ς", "s", "τ", "t", "υ", "y",
+        "φ", "f", "χ", "ch", "ψ", "ps", "ω", "o",
+        // Cyrillic
+        "а", "a", "б", "b", "в", "v", "г", "g", "д", "d", "е", "e", "ж", "zh",
+        "з", "z", "и", "i", "й", "y", "к", "k", "л", "l", "м", "m", "н", "n",
+        "о", "o", "п", "p", "р", "r", "с", "s", "т", "t", "у", "u", "ф", "f",
+        "х", "kh", "ц", "ts", "ч", "ch", "ш", "sh", "щ", "shch", "ъ", "",
+        "ы", "y", "ь", "", "э", "e", "ю", "yu", "я", "ya",
+        "є", "ye", "і", "i", "ґ", "g", "ђ", "dj", "ј", "j", "љ", "lj",
+        "њ", "nj", "ћ", "c", "џ", "dz", "ѕ", "dz",
+    };
+
+    static {
+        String[] special = new String[BASIC_END];
+        for (int i = 0; i < SPECIAL.length; i += 2) {
+            special[SPECIAL[i].charAt(0)] = SPECIAL[i + 1];
+        }
+
+        for (char c = 0; c < BASIC_END; c++) {
+            sBasic[c] = resolve(c, special);
+        }
+        for (char c = EXTENDED_START; c < EXTENDED_END; c++) {
+            sExtended[c - EXTENDED_START] = resolve(c, special);
+        }
+    }
+
+    private Transliterator() {
+    }
+
+    /**
+     * Returns the spelling of a name using only the characters the small
+     * font knows about, wherever a spelling exists.
+     */
+    static String transliterate(String str) {
+        StringBuilder builder = new StringBuilder(str.length() + 4);
+
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c >= FULLWIDTH_START && c < FULLWIDTH_END) {
+                c -= FULLWIDTH_OFFSET;
+            }
+
+            String mapped = null;
+            if (c < BASIC_END) {
+                mapped = sBasic[c];
+            } else if (c >= EXTENDED_START && c < EXTENDED_END) {
+                mapped = sExtended[c - EXTENDED_START];
+            } else if (c >= PUNCTUATION_START && c < PUNCTUATION_END) {
+                mapped = sPunctuation[c - PUNCTUATION_START];
+            }
+
+            if (mapped != null) {
+                builder.append(mapped);
+            } else {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Works out the ASCII spelling of a single character by stripping its
+     * diacritics and looking up what is left.
+     *
+     * @return the spelling, or null if the character has none
+     */
+    private static String resolve(char c, String[] special) {
+        String decomposed = Normalizer.normalize(
+                String.valueOf(Character.toLowerCase(c)), Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char base = decomposed.charAt(i);
+            if (Character.getType(base) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if ((base >= 'a' && base <= 'z') || (base >= '0' && base <= '9') || base == ' ') {
+                builder.append(base);
+            } else if (base < BASIC_END && special[base] != null) {
+                builder.append(special[base]);
+            } else {
+                return null;
+            }
+        }
+        return builder.toString();
+    }
+}
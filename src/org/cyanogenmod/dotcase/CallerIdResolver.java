@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.provider.ContactsContract;
+import android.util.Log;
+import android.util.LruCache;
+
+/**
+ * Looks up caller names off the main thread.
+ *
+ * Resolved names are kept transliterated and ready to draw in an LRU cache keyed
+ * by number, so repeat callers need no database access.  The cache is
+ * dropped whenever the contacts change.
+ */
+class CallerIdResolver {
+    private static final String TAG = "Dotcase";
+
+    private static final int CACHE_SIZE = 32;
+
+    interface Callback {
+        /**
+         * Called on the main thread once the name for a number is known.
+         */
+        void onCallerResolved(String number, String name);
+    }
+
+    private final Context mContext;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, String> mCache = new LruCache<String, String>(CACHE_SIZE);
+    private HandlerThread mThread;
+    private Handler mHandler;
+
+    // Bumped on every contacts change so lookups racing with it are not cached
+    private volatile int mGeneration = 0;
+
+    private final ContentObserver mObserver = new ContentObserver(mMainHandler) {
+        @Override
+        public void onChange(boolean selfChange) {
+            mGeneration++;
+            mCache.evictAll();
+        }
+    };
+
+    CallerIdResolver(Context context) {
+        mContext = context;
+    }
+
+    void start() {
+        mThread = new HandlerThread("DotcaseCallerId", Process.THREAD_PRIORITY_BACKGROUND);
+        mThread.start();
+        mHandler = new Handler(mThread.getLooper());
+        mContext.getContentResolver().registerContentObserver(
+                ContactsContract.Contacts.CONTENT_URI, true, mObserver);
+    }
+
+    void stop() {
+        mContext.getContentResolver().unregisterContentObserver(mObserver);
+        mThread.quitSafely();
+    }
+
+    /**
+     * Returns the display name for a number if it has been resolved before,
+     * or null if it has to be looked up.
+     */
+    String getCached(String number) {
+        return mCache.get(number);
+    }
+
+    void resolve(final String number, final Callback callback) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                int generation = mGeneration;
+                final String name = Transliterator.transliterate(lookup(number)) + "  ";
+                if (generation == mGeneration) {
+                    mCache.put(number, name);
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onCallerResolved(number, name);
+                    }
+                });
+            }
+        });
+    }
+
+    private String lookup(String number) {
+        Uri uri = Uri.withAppendedPath(ContactsContract.PhoneLookup.CONTENT_FILTER_URI,
+                Uri.encode(number));
+        Cursor cursor = mContext.getContentResolver().query(uri,
+                new String[] {ContactsContract.PhoneLookup.DISPLAY_NAME},
+                number, null, null);
+        if (cursor == null) {
+            Log.w(TAG, "Caller lookup failed");
+            return "";
+        }
+
+        String name;
+        try {
+            if (cursor.moveToFirst()) {
+                name = cursor.getString(cursor.getColumnIndex(
+                        ContactsContract.PhoneLookup.DISPLAY_NAME));
+            } else {
+                name = "";
+            }
+        } finally {
+            cursor.close();
+        }
+        return name != null ? name : "";
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Turns a composed DotFrame into canvas draw calls.
+ *
+ * On hardware accelerated canvases all dots of one color go out as a single
+ * drawPoints() call with a round cap, so a frame costs at most one call per
+ * palette entry.  Software canvases rasterize circles slowly, so there every
+ * horizontal run of dots is stamped from the sprite atlas instead.
+ */
+class DotRasterizer {
+    // Dots are inset by 3 pixels on each side, see SpriteAtlas.rasterize()
+    private static final int DOT_INSET = 3;
+
+    private final SpriteAtlas mAtlas = new SpriteAtlas();
+    private final Paint[] mPaints = new Paint[DotFrame.COLORS];
+    private final float[] mPoints = new float[DotFrame.WIDTH * DotFrame.HEIGHT * 2];
+    private final Rect mClip = new Rect();
+    private final int mDotRatio;
+
+    DotRasterizer() {
+        mDotRatio = DotcaseConstants.DOT_RATIO;
+        buildPaints();
+    }
+
+    void draw(DotFrame frame, Canvas canvas) {
+        if (canvas.isHardwareAccelerated()) {
+            drawBatched(frame, canvas);
+        } else {
+            drawRuns(frame, canvas);
+        }
+    }
+
+    private void buildPaints() {
+        for (int color = 0; color < DotFrame.COLORS; color++) {
+            Paint paint = new Paint();
+            paint.setAntiAlias(true);
+            paint.setColor(DotcaseConstants.paintColors[color + 1]);
+            paint.setStrokeCap(Paint.Cap.ROUND);
+            paint.setStrokeWidth(mDotRatio - 2 * DOT_INSET);
+            mPaints[color] = paint;
+        }
+    }
+
+    /**
+     * Black dots are skipped by both paths as they are indistinguishable
+     * from the background.
+     */
+    private void drawBatched(DotFrame frame, Canvas canvas) {
+        float center = mDotRatio / 2f;
+
+        for (int color = 1; color < DotFrame.COLORS; color++) {
+            int count = 0;
+            for (int y = 0; y < DotFrame.HEIGHT; y++) {
+                int row = frame.getRow(color, y);
+                while (row != 0) {
+                    int x = Integer.numberOfTrailingZeros(row);
+                    row &= row - 1;
+                    mPoints[count++] = x * mDotRatio + center;
+                    mPoints[count++] = y * mDotRatio + center;
+                }
+            }
+
+            if (count > 0) {
+                canvas.drawPoints(mPoints, 0, count, mPaints[color]);
+            }
+        }
+    }
+
+    private void drawRuns(DotFrame frame, Canvas canvas) {
+        // Only rows inside the invalidated area need to be stamped again
+        canvas.getClipBounds(mClip);
+        int top = Math.max(mClip.top / mDotRatio, 0);
+        int bottom = Math.min((mClip.bottom + mDotRatio - 1) / mDotRatio, DotFrame.HEIGHT);
+
+        for (int color = 1; color < DotFrame.COLORS; color++) {
+            for (int y = top; y < bottom; y++) {
+                int row = frame.getRow(color, y);
+                while (row != 0) {
+                    int x = Integer.numberOfTrailingZeros(row);
+                    int length = Integer.numberOfTrailingZeros(~(row >>> x));
+                    mAtlas.drawRun(color, length, x, y, canvas);
+                    row &= ~(((1 << length) - 1) << x);
+                }
+            }
+        }
+    }
+}
@@ -27,44 +27,43 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.os.Bundle;
 import android.os.PowerManager;
 import android.os.RemoteException;
 import android.os.ServiceManager;
 import android.os.SystemClock;
+import android.os.SystemProperties;
 import android.util.Log;
-import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.WindowManager;
 
-import android.telecom.TelecomManager;
-
-import java.lang.Math;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 
-public class Dotcase extends Activity implements SensorEventListener
+public class Dotcase extends Activity
 {
     private static final String TAG = "Dotcase";
 
     private final IntentFilter mFilter = new IntentFilter();
-    private GestureDetector mDetector;
+    private DotcaseInputHandler mInputHandler;
     private PowerManager mPowerManager;
-    private SensorManager mSensorManager;
     private static Context mContext;
 
     static DotcaseStatus sStatus = new DotcaseStatus();
+    static FrameScheduler sScheduler = new FrameScheduler();
+    // Set up by DotcaseService
+    static DotcaseController sController;
+    static TopActivityGuard sTopActivityGuard = new TopActivityGuard();
+    static LatencyTracker sLatency = new LatencyTracker();
+    static DotcaseMetrics sMetrics = new DotcaseMetrics();
 
     @Override
     public void onCreate(Bundle savedInstanceState)
     {
         super.onCreate(savedInstanceState);
+        sLatency.mark(LatencyTracker.COVER_CLOSE, LatencyTracker.STAGE_CREATE);
 
         mContext = this;
 
@@ -88,42 +87,38 @@ public class Dotcase extends Activity implements SensorEventListener
         lp.screenBrightness = WindowManager.LayoutParams.BRIGHTNESS_OVERRIDE_FULL;
         getWindow().setAttributes(lp);
 
-        final DrawView drawView = new DrawView(mContext);
-        setContentView(drawView);
+        if (SystemProperties.getBoolean(DotcaseConstants.PROP_RENDER_THREAD, false)) {
+            setContentView(new DotcaseSurfaceView(mContext));
+        } else {
+            setContentView(new DrawView(mContext));
+        }
 
         mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
-        mSensorManager = (SensorManager) mContext.getSystemService(Context.SENSOR_SERVICE);
-        mDetector = new GestureDetector(mContext, new DotcaseGestureListener());
-        sStatus.stopRunning();
+        mInputHandler = new DotcaseInputHandler(mContext);
     }
 
     @Override
     public void onStart() {
         super.onStart();
 
-        new Thread(new Service()).start();
+        sScheduler.start(mContext);
     }
 
     @Override
-    public void onSensorChanged(SensorEvent event) {
-        if (event.sensor.getType() == Sensor.TYPE_PROXIMITY) {
-            if (event.values[0] < event.sensor.getMaximumRange() && !sStatus.isPocketed()) {
-                sStatus.setPocketed(true);
-            } else if (sStatus.isPocketed()) {
-                sStatus.setPocketed(false);
-            }
+    public void onWindowFocusChanged(boolean hasFocus) {
+        super.onWindowFocusChanged(hasFocus);
+        if (hasFocus) {
+            sTopActivityGuard.onDisplayFocused();
+        } else {
+            sTopActivityGuard.onDisplayUnfocused();
         }
     }
 
-    @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) { }
-
     @Override
     protected void onResume() {
         super.onResume();
-        mSensorManager.registerListener(this,
-                mSensorManager.getDefaultSensor(Sensor.TYPE_PROXIMITY),
-                SensorManager.SENSOR_DELAY_NORMAL);
+        sLatency.mark(LatencyTracker.COVER_CLOSE, LatencyTracker.STAGE_RESUME);
+        mInputHandler.start();
         boolean screenOn = mPowerManager.isInteractive();
         // Starting up or comign back from screen off
         // Ensure device is awake and redraw
@@ -131,9 +126,7 @@ public class Dotcase extends Activity implements SensorEventListener
             mPowerManager.wakeUp(SystemClock.uptimeMillis(), "Cover Closed");
         }
         Log.d(TAG, "Cover closed, Time to do work");
-        Intent newIntent = new Intent();
-        newIntent.setAction(DotcaseConstants.ACTION_REDRAW);
-        mContext.sendBroadcast(newIntent);
+        sScheduler.requestFrame();
     }
 
     @Override
@@ -141,126 +134,21 @@ public class Dotcase extends Activity implements SensorEventListener
         super.onPause();
         mPowerManager.goToSleep(SystemClock.uptimeMillis());
 
-        try {
-            mSensorManager.unregisterListener(this);
-        } catch (IllegalArgumentException e) {
-            Log.e(TAG, "Failed to unregister listener", e);
-        }
-    }
-
-    class Service implements Runnable {
-        @Override
-        public void run() {
-            if (!sStatus.isRunning()) {
-                sStatus.startRunning();
-                while (sStatus.isRunning()) {
-                    Intent batteryIntent = mContext.getApplicationContext().registerReceiver(null,
-                                             new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
-                    int timeout;
-
-                    if(batteryIntent.getIntExtra("plugged", -1) > 0) {
-                        timeout = 40;
-                    } else {
-                        timeout = 20;
-                    }
-
-                    for (int i = 0; i <= timeout; i++) {
-                        if (sStatus.isResetTimer() || sStatus.isRinging() || sStatus.isAlarm()) {
-                            i = 0;
-                        }
-
-                        if (!sStatus.isRunning()) {
-                            return;
-                        }
-
-                        try {
-                            Thread.sleep(500);
-                        } catch (IllegalArgumentException e) {
-                            // This isn't going to happen
-                        } catch (InterruptedException e) {
-                            Log.i(TAG, "Sleep interrupted", e);
-                        }
-
-                        Intent intent = new Intent();
-                        intent.setAction(DotcaseConstants.ACTION_REDRAW);
-                        mContext.sendBroadcast(intent);
-                    }
-                    mPowerManager.goToSleep(SystemClock.uptimeMillis());
-                }
-            }
-        }
+        mInputHandler.stop();
     }
 
     @Override
     public void onDestroy() {
-        sStatus.stopRunning();
+        sScheduler.stop();
         super.onDestroy();
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event){
-        if (!sStatus.isPocketed()) {
-            this.mDetector.onTouchEvent(event);
-            return super.onTouchEvent(event);
-        } else {
-            // Say that we handled this event so nobody else does
-            return true;
-        }
-    }
-
-    class DotcaseGestureListener extends GestureDetector.SimpleOnGestureListener
-    {
-
-        @Override
-        public boolean onDoubleTap(MotionEvent event) {
-            //if screen on, screen off & "pause"
-            boolean screenOn = mPowerManager.isInteractive();
-            Log.d(TAG, "DT detected, screenon:" + screenOn );
-            if(screenOn) {
-                // Screen is on, trun it off and go to Sleep now
-                onPause();
-            }
-            else {
-                // screen was off, Resume
-                onResume();
-            }
-            return true;
-        }
-
-        @Override
-        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-            if (Math.abs(distanceY) > 60) {
-                if (sStatus.isRinging()) {
-                    sStatus.setOnTop(false);
-                    TelecomManager telecomManager = (TelecomManager) mContext.getSystemService(Context.TELECOM_SERVICE);
-                    if (distanceY < 60) {
-                        telecomManager.endCall();
-                    } else if (distanceY > 60) {
-                        telecomManager.acceptRingingCall();
-                    }
-                } else if (sStatus.isAlarm()) {
-                    Intent i = new Intent();
-                    if (distanceY < 60) {
-                        i.setAction("com.android.deskclock.ALARM_DISMISS");
-                        sStatus.setOnTop(false);
-                        mContext.sendBroadcast(i);
-                        sStatus.stopAlarm();
-                    } else if (distanceY > 60) {
-                        i.setAction("com.android.deskclock.ALARM_SNOOZE");
-                        sStatus.setOnTop(false);
-                        mContext.sendBroadcast(i);
-                        sStatus.stopAlarm();
-                    }
-                }
-            }
-            return true;
-        }
-
-        @Override
-        public boolean onSingleTapUp (MotionEvent e) {
-            sStatus.resetTimer();
+        if (mInputHandler.onTouchEvent(event)) {
             return true;
         }
+        return super.onTouchEvent(event);
     }
 
     private final BroadcastReceiver receiver = new BroadcastReceiver() {
@@ -272,7 +160,7 @@ public class Dotcase extends Activity implements SensorEventListener
                 } catch (IllegalArgumentException e) {
                     Log.e(TAG, "Failed to unregister receiver", e);
                 }
-                sStatus.stopRunning();
+                sScheduler.stop();
                 finish();
                 overridePendingTransition(0, 0);
                 onDestroy();
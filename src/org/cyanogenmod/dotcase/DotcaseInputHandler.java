@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+
+/**
+ * Touch gestures and pocket detection, shared by the activity and the
+ * overlay window.  Gestures are handed to the controller, and all touches
+ * are swallowed while the proximity sensor reports the device as pocketed.
+ */
+class DotcaseInputHandler implements SensorEventListener {
+    private static final String TAG = "Dotcase";
+
+    private final GestureDetector mDetector;
+    private final PowerManager mPowerManager;
+    private final SensorManager mSensorManager;
+
+    DotcaseInputHandler(Context context) {
+        mDetector = new GestureDetector(context, new DotcaseGestureListener());
+        mPowerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        mSensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+    }
+
+    /**
+     * Starts listening to the proximity sensor.
+     */
+    void start() {
+        mSensorManager.registerListener(this,
+                mSensorManager.getDefaultSensor(Sensor.TYPE_PROXIMITY),
+                SensorManager.SENSOR_DELAY_NORMAL);
+    }
+
+    void stop() {
+        try {
+            mSensorManager.unregisterListener(this);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Failed to unregister listener", e);
+        }
+    }
+
+    /**
+     * @return true if the event must not be handled any further
+     */
+    boolean onTouchEvent(MotionEvent event) {
+        if (Dotcase.sStatus.isPocketed()) {
+            // Say that we handled this event so nobody else does
+            return true;
+        }
+        mDetector.onTouchEvent(event);
+        return false;
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        if (event.sensor.getType() == Sensor.TYPE_PROXIMITY) {
+            if (event.values[0] < event.sensor.getMaximumRange()
+                    && !Dotcase.sStatus.isPocketed()) {
+                Dotcase.sStatus.setPocketed(true);
+            } else if (Dotcase.sStatus.isPocketed()) {
+                Dotcase.sStatus.setPocketed(false);
+            }
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) { }
+
+    private class DotcaseGestureListener extends GestureDetector.SimpleOnGestureListener {
+        @Override
+        public boolean onDoubleTap(MotionEvent event) {
+            boolean screenOn = mPowerManager.isInteractive();
+            Log.d(TAG, "DT detected, screenon:" + screenOn);
+            if (screenOn) {
+                // Screen is on, turn it off and go to sleep now
+                mPowerManager.goToSleep(SystemClock.uptimeMillis());
+            } else {
+                // Screen was off, wake up and redraw
+                mPowerManager.wakeUp(SystemClock.uptimeMillis(), "Cover Closed");
+                Dotcase.sScheduler.requestFrame();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX,
+                float distanceY) {
+            if (Dotcase.sController != null) {
+                Dotcase.sController.onSwipe(distanceY);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onSingleTapUp(MotionEvent e) {
+            if (Dotcase.sController != null) {
+                Dotcase.sController.onTap();
+            } else {
+                Dotcase.sScheduler.resetTimer();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import java.io.PrintWriter;
+
+/**
+ * Live counters and histograms reported by DotcaseService.dump().
+ *
+ * Everything is kept since the process started.  Recording allocates
+ * nothing, so the hooks can stay in the frame path.  Thread safe.
+ */
+class DotcaseMetrics {
+    // Screen types, as picked by FrameComposer
+    static final int SCREEN_CLOCK = 0;
+    static final int SCREEN_NOTIFICATIONS = 1;
+    static final int SCREEN_RINGING = 2;
+    static final int SCREEN_ALARM = 3;
+
+    private static final String[] SCREEN_NAMES = { "clock", "notifications", "ringing", "alarm" };
+
+    private final long[] mFrames = new long[SCREEN_NAMES.length];
+    private long mFramesUnchanged;
+    private long mFrameRequests;
+    private long mFrameRequestsCoalesced;
+    private long mCoverClosed;
+    private long mCoverOpened;
+    private long mRelaunches;
+
+    private final LatencyHistogram mComposeTime = new LatencyHistogram();
+    private final LatencyHistogram mDrawTime = new LatencyHistogram();
+    private final LatencyHistogram mNotificationTime = new LatencyHistogram();
+    private final LatencyHistogram mWakeLockTime = new LatencyHistogram();
+
+    static int screenOf(DotcaseState state) {
+        if (state.alarm) {
+            return SCREEN_ALARM;
+        } else if (state.ringing) {
+            return SCREEN_RINGING;
+        } else if (!state.notifications.isEmpty()) {
+            return SCREEN_NOTIFICATIONS;
+        }
+        return SCREEN_CLOCK;
+    }
+
+    /**
+     * Counts a composed frame.
+     *
+     * @param changed whether any dot differs from the frame on screen
+     */
+    synchronized void onFrameComposed(DotcaseState state, long nanos, boolean changed) {
+        mFrames[screenOf(state)]++;
+        if (!changed) {
+            mFramesUnchanged++;
+        }
+        mComposeTime.record(nanos / 1000);
+    }
+
+    void onFrameDrawn(long nanos) {
+        mDrawTime.record(nanos / 1000);
+    }
+
+    /**
+     * Counts a frame request, which is coalesced if an earlier request has
+     * not been drawn yet.
+     */
+    synchronized void onFrameRequested(boolean coalesced) {
+        mFrameRequests++;
+        if (coalesced) {
+            mFrameRequestsCoalesced++;
+        }
+    }
+
+    void onNotificationsRefreshed(long nanos) {
+        mNotificationTime.record(nanos / 1000);
+    }
+
+    void onWakeLockReleased(long nanos) {
+        mWakeLockTime.record(nanos / 1000);
+    }
+
+    synchronized void onCoverChanged(boolean closed) {
+        if (closed) {
+            mCoverClosed++;
+        } else {
+            mCoverOpened++;
+        }
+    }
+
+    synchronized void onRelaunch() {
+        mRelaunches++;
+    }
+
+    synchronized void dump(PrintWriter pw) {
+        pw.println("Frames:");
+        for (int i = 0; i < SCREEN_NAMES.length; i++) {
+            pw.println("  " + SCREEN_NAMES[i] + ": " + mFrames[i]);
+        }
+        pw.println("  unchanged: " + mFramesUnchanged);
+        pw.println("  requests: " + mFrameRequests + " (" + mFrameRequestsCoalesced
+                + " coalesced)");
+        pw.println("  compose: " + mComposeTime);
+        pw.println("  draw: " + mDrawTime);
+        pw.println("Notifications refresh: " + mNotificationTime);
+        pw.println("Cover: " + mCoverClosed + " closed, " + mCoverOpened + " opened");
+        pw.println("Wake lock held: " + mWakeLockTime);
+        pw.println("Activity relaunches: " + mRelaunches);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.service.notification.NotificationListenerService;
+import android.service.notification.StatusBarNotification;
+
+/**
+ * Feeds posted and removed notifications into a NotificationIndex and
+ * publishes the result, so nothing needs to be queried while drawing.
+ * Registered as a system listener by DotcaseService.
+ */
+public class DotcaseNotificationListener extends NotificationListenerService {
+
+    private final NotificationIndex mIndex = new NotificationIndex();
+
+    @Override
+    public void onListenerConnected() {
+        long start = System.nanoTime();
+        mIndex.clear();
+        StatusBarNotification[] active = getActiveNotifications();
+        if (active != null) {
+            for (StatusBarNotification sbn : active) {
+                mIndex.post(sbn.getKey(), sbn.getPackageName());
+            }
+        }
+        publish();
+        Dotcase.sMetrics.onNotificationsRefreshed(System.nanoTime() - start);
+    }
+
+    @Override
+    public void onNotificationPosted(StatusBarNotification sbn) {
+        long start = System.nanoTime();
+        if (mIndex.post(sbn.getKey(), sbn.getPackageName())) {
+            publish();
+        }
+        Dotcase.sMetrics.onNotificationsRefreshed(System.nanoTime() - start);
+    }
+
+    @Override
+    public void onNotificationRemoved(StatusBarNotification sbn) {
+        long start = System.nanoTime();
+        if (mIndex.remove(sbn.getKey())) {
+            publish();
+        }
+        Dotcase.sMetrics.onNotificationsRefreshed(System.nanoTime() - start);
+    }
+
+    private void publish() {
+        if (Dotcase.sStatus.setNotifications(mIndex.getVisible())) {
+            Dotcase.sScheduler.requestFrame();
+        }
+    }
+}
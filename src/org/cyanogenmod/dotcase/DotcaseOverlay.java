@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.graphics.Color;
+import android.graphics.PixelFormat;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.os.SystemProperties;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.WindowManager;
+import android.widget.FrameLayout;
+
+/**
+ * Full screen system window showing the dot display without an activity.
+ *
+ * The window and its view are created once and then only shown and hidden
+ * on cover changes, so closing the cover skips the activity launch and the
+ * composer, rasterizer and sprite atlas stay warm between cover cycles.
+ * Must be used from the main thread.
+ */
+class DotcaseOverlay {
+    private static final String TAG = "Dotcase";
+
+    // Unlike activity windows, windows added by a service are only hardware
+    // accelerated when asked to.  In software DotRasterizer cannot batch dots
+    // through drawPoints() and falls back to stamping atlas runs.
+    private static final int BASE_FLAGS = WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN
+            | WindowManager.LayoutParams.FLAG_HARDWARE_ACCELERATED;
+    private static final int SHOWN_FLAGS = BASE_FLAGS
+            | WindowManager.LayoutParams.FLAG_FULLSCREEN
+            | WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON
+            | WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED;
+    private static final int HIDDEN_FLAGS = BASE_FLAGS
+            | WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE
+            | WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+
+    private final Context mContext;
+    private final WindowManager mWindowManager;
+    private final PowerManager mPowerManager;
+    private final DotcaseInputHandler mInputHandler;
+    private final WindowManager.LayoutParams mParams;
+    private final FrameLayout mRoot;
+
+    private boolean mShown = false;
+
+    DotcaseOverlay(Context context) {
+        mContext = context;
+        mWindowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        mPowerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        mInputHandler = new DotcaseInputHandler(context);
+
+        mRoot = new FrameLayout(context) {
+            @Override
+            public boolean dispatchTouchEvent(MotionEvent event) {
+                mInputHandler.onTouchEvent(event);
+                return true;
+            }
+        };
+        mRoot.setBackgroundColor(Color.BLACK);
+        mRoot.setSystemUiVisibility(
+                View.SYSTEM_UI_FLAG_LAYOUT_STABLE |
+                View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION |
+                View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN |
+                View.SYSTEM_UI_FLAG_HIDE_NAVIGATION |
+                View.SYSTEM_UI_FLAG_FULLSCREEN |
+                View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY);
+        if (SystemProperties.getBoolean(DotcaseConstants.PROP_RENDER_THREAD, false)) {
+            mRoot.addView(new DotcaseSurfaceView(context));
+        } else {
+            mRoot.addView(new DrawView(context));
+        }
+        mRoot.setVisibility(View.GONE);
+
+        mParams = new WindowManager.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                WindowManager.LayoutParams.TYPE_SYSTEM_ERROR,
+                HIDDEN_FLAGS,
+                PixelFormat.OPAQUE);
+        mParams.screenOrientation = ActivityInfo.SCREEN_ORIENTATION_PORTRAIT;
+        mParams.screenBrightness = WindowManager.LayoutParams.BRIGHTNESS_OVERRIDE_FULL;
+        mParams.windowAnimations = 0;
+        mParams.setTitle("Dotcase");
+        mWindowManager.addView(mRoot, mParams);
+    }
+
+    void show() {
+        if (mShown) {
+            return;
+        }
+        Log.d(TAG, "Showing overlay");
+        mShown = true;
+
+        mParams.flags = SHOWN_FLAGS;
+        mWindowManager.updateViewLayout(mRoot, mParams);
+        mRoot.setVisibility(View.VISIBLE);
+
+        Dotcase.sScheduler.start(mContext);
+        mInputHandler.start();
+        if (!mPowerManager.isInteractive()) {
+            mPowerManager.wakeUp(SystemClock.uptimeMillis(), "Cover Closed");
+        }
+        Dotcase.sScheduler.requestFrame();
+    }
+
+    void hide() {
+        if (!mShown) {
+            return;
+        }
+        Log.d(TAG, "Hiding overlay");
+        mShown = false;
+
+        mInputHandler.stop();
+        Dotcase.sScheduler.stop();
+
+        mRoot.setVisibility(View.GONE);
+        mParams.flags = HIDDEN_FLAGS;
+        mWindowManager.updateViewLayout(mRoot, mParams);
+    }
+
+    void destroy() {
+        hide();
+        mWindowManager.removeView(mRoot);
+    }
+}
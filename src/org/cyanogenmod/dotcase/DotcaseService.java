@@ -20,34 +20,48 @@
 
 package org.cyanogenmod.dotcase;
 
-import java.text.Normalizer;
 
-import android.app.Activity;
-import android.app.ActivityManager;
 import android.app.Service;
 import android.content.BroadcastReceiver;
+import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.database.Cursor;
-import android.net.Uri;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Message;
 import android.os.PowerManager;
 import android.os.PowerManager.WakeLock;
+import android.os.Process;
+import android.os.RemoteException;
 import android.os.SystemClock;
+import android.os.SystemProperties;
 import android.os.UserHandle;
-import android.provider.ContactsContract;
 import android.provider.Settings;
+import android.telecom.TelecomManager;
 import android.telephony.TelephonyManager;
 import android.util.Log;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.Executor;
+
 public class DotcaseService extends Service {
 
     private static final String TAG = "Dotcase";
 
     private static final int COVER_STATE_CHANGED = 0;
+    private static final int COVER_SETTLED = 1;
+
+    // Bounds the wake lock held for a pending cover change past its window
+    private static final long WAKE_LOCK_SLACK = 1000;
+    // Batches the recorded events of a few seconds into one write
+    private static final long EVENT_LOG_FLUSH_DELAY = 5000;
 
     private Context mContext;
     private PowerManager.WakeLock mWakeLock;
@@ -58,6 +72,18 @@ public class DotcaseService extends Service {
 
     private int mSwitchState = 0;
 
+    private long mCoverSettle;
+    private long mWakeLockSince;
+
+    private final DotcaseNotificationListener mNotificationListener =
+            new DotcaseNotificationListener();
+    private CallerIdResolver mCallerIdResolver;
+    private EventLog.Writer mEventLog;
+    private HandlerThread mEventLogThread;
+    // Set when the display is shown in an overlay window instead of the activity
+    private DotcaseOverlay mOverlay;
+    // The overlay covers everything, so it must only show while the cover is closed
+    private boolean mCoverClosed = false;
 
     @Override
     public void onCreate() {
@@ -74,7 +100,63 @@ public class DotcaseService extends Service {
         mContext.getApplicationContext().registerReceiver(receiver, mFilter);
         mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
         mWakeLock = mPowerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, TAG);
+        mWakeLock.setReferenceCounted(false);
+        mCoverSettle = SystemProperties.getLong(DotcaseConstants.PROP_COVER_SETTLE,
+                DotcaseConstants.COVER_SETTLE_DEFAULT);
+        mCallerIdResolver = new CallerIdResolver(mContext);
+        mCallerIdResolver.start();
+
+        if (SystemProperties.getBoolean(DotcaseConstants.PROP_OVERLAY, false)) {
+            mOverlay = new DotcaseOverlay(mContext);
+        }
+        Dotcase.sController = new DotcaseController(Dotcase.sStatus, mHost, mCoverSettle);
+        if (SystemProperties.getBoolean(DotcaseConstants.PROP_RECORD_EVENTS, false)) {
+            try {
+                FileOutputStream out = new FileOutputStream(
+                        new File(getFilesDir(), DotcaseConstants.EVENT_LOG_FILE));
+                mEventLogThread = new HandlerThread("DotcaseEventLog",
+                        Process.THREAD_PRIORITY_BACKGROUND);
+                mEventLogThread.start();
+                final Handler handler = new Handler(mEventLogThread.getLooper());
+                mEventLog = new EventLog.Writer(new BufferedOutputStream(out), new Executor() {
+                    @Override
+                    public void execute(Runnable flush) {
+                        handler.postDelayed(flush, EVENT_LOG_FLUSH_DELAY);
+                    }
+                });
+                Dotcase.sController.setRecorder(mEventLog);
+            } catch (IOException e) {
+                Log.e(TAG, "Cannot record events", e);
+            }
+        }
 
+        try {
+            mNotificationListener.registerAsSystemService(mContext,
+                    new ComponentName(mContext.getPackageName(), getClass().getCanonicalName()),
+                    UserHandle.USER_ALL);
+        } catch (RemoteException e) {
+            Log.e(TAG, "Cannot register notification listener", e);
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        try {
+            mNotificationListener.unregisterAsSystemService();
+        } catch (RemoteException e) {
+            Log.e(TAG, "Cannot unregister notification listener", e);
+        }
+        mContext.getApplicationContext().unregisterReceiver(receiver);
+        mCallerIdResolver.stop();
+        if (mOverlay != null) {
+            mOverlay.destroy();
+        }
+        if (mEventLog != null) {
+            Dotcase.sController.setRecorder(null);
+            mEventLogThread.quit();
+            mEventLog.close();
+        }
+        super.onDestroy();
     }
 
 
@@ -84,13 +166,37 @@ public class DotcaseService extends Service {
 
             switch (msg.what) {
                 case COVER_STATE_CHANGED:
-                    handleCoverChange(msg.arg1);
-                    mWakeLock.release();
+                    boolean closed = msg.arg1 == 0;
+                    if (closed) {
+                        Dotcase.sLatency.mark(LatencyTracker.COVER_CLOSE,
+                                LatencyTracker.STAGE_HANDLER);
+                    }
+                    synchronized (mLock) {
+                        if (!Dotcase.sController.onCoverEvent(closed) && closed
+                                && !Dotcase.sController.getCoverState().hasPendingChange()) {
+                            // Already closed
+                            Dotcase.sLatency.cancel(LatencyTracker.COVER_CLOSE);
+                        }
+                        settleCover();
+                    }
+                    break;
+                case COVER_SETTLED:
+                    synchronized (mLock) {
+                        Dotcase.sController.onCoverSettle();
+                        settleCover();
+                    }
                     break;
             }
         }
     };
 
+    private final CallerIdResolver.Callback mCallerIdCallback = new CallerIdResolver.Callback() {
+        @Override
+        public void onCallerResolved(String number, String name) {
+            Dotcase.sController.onCallerResolved(number, name);
+        }
+    };
+
     private final BroadcastReceiver receiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -101,127 +207,208 @@ public class DotcaseService extends Service {
                     onCoverEvent(mLidState);
                 }
             }
-            Intent i = new Intent();
             if (intent.getAction().equals(TelephonyManager.ACTION_PHONE_STATE_CHANGED)) {
                 String state = intent.getStringExtra(TelephonyManager.EXTRA_STATE);
                 if (state.equals("RINGING")) {
-
-                    String number = intent.getStringExtra(TelephonyManager.EXTRA_INCOMING_NUMBER);
-                    Uri uri = Uri.withAppendedPath(ContactsContract.PhoneLookup.CONTENT_FILTER_URI,
-                            Uri.encode(number));
-                    Cursor cursor = context.getContentResolver().query(uri,
-                            new String[] {ContactsContract.PhoneLookup.DISPLAY_NAME},
-                            number, null, null);
-                    String name;
-                    if (cursor.moveToFirst()) {
-                        name = cursor.getString(cursor.getColumnIndex(
-                                ContactsContract.PhoneLookup.DISPLAY_NAME));
-                    } else {
-                        name = "";
-                    }
-                    cursor.close();
-
-                    if (number.equalsIgnoreCase("restricted")) {
-                        // If call is restricted, don't show a number
-                        name = number;
-                        number = "";
-                    }
-
-                    name = normalize(name);
-                    name = name + "  "; // Add spaces so the scroll effect looks good
-
-                    Dotcase.sStatus.startRinging(number, name);
-                    Dotcase.sStatus.setOnTop(true);
-                    new Thread(new ensureTopActivity()).start();
-
+                    Dotcase.sLatency.begin(LatencyTracker.RINGING);
+                    Dotcase.sController.onRinging(
+                            intent.getStringExtra(TelephonyManager.EXTRA_INCOMING_NUMBER));
                 } else {
-                    Dotcase.sStatus.setOnTop(false);
-                    Dotcase.sStatus.stopRinging();
+                    Dotcase.sLatency.mark(LatencyTracker.SWIPE, LatencyTracker.STAGE_CALL_IDLE);
+                    Dotcase.sController.onCallIdle();
                 }
             } else if (intent.getAction().equals("com.android.deskclock.ALARM_ALERT")) {
                 // add other alarm apps here
-                Dotcase.sStatus.startAlarm();
-                Dotcase.sStatus.setOnTop(true);
-                new Thread(new ensureTopActivity()).start();
+                Dotcase.sController.onAlarm();
             } else if (intent.getAction().equals(Intent.ACTION_SCREEN_ON)) {
-                Dotcase.sStatus.resetTimer();
-                intent.setAction(DotcaseConstants.ACTION_REDRAW);
-                mContext.sendBroadcast(intent);
-                i.setClassName("org.cyanogenmod.dotcase", "org.cyanogenmod.dotcase.Dotcase");
-                i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                mContext.startActivity(i);
+                Dotcase.sController.onScreenOn();
             }
         }
     };
 
-    private void handleCoverChange(int state) {
-        synchronized (mLock) {
-
-            if(state == 0) {
-                Log.e(TAG, "Cover Closed, Creating Dotcase Activity");
-                Intent intent = new Intent(this, Dotcase.class);
-                intent.setAction(DotcaseConstants.ACTION_COVER_CLOSED);
-                intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
-                intent.addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-                startActivity(intent);
-            } else {
-                Log.e(TAG, "Cover Opened, Killing Dotcase Activity");
-                Intent intent = new Intent(DotcaseConstants.ACTION_KILL_ACTIVITY);
-                mContext.sendBroadcastAsUser(intent, new UserHandle(UserHandle.USER_CURRENT));
+    /**
+     * Carries out the decisions of the controller.
+     */
+    private final DotcaseController.Host mHost = new DotcaseController.Host() {
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void launchCoverDisplay() {
+            Dotcase.sLatency.mark(LatencyTracker.COVER_CLOSE, LatencyTracker.STAGE_LAUNCH);
+            mCoverClosed = true;
+            if (mOverlay != null) {
+                mOverlay.show();
+                return;
             }
+            Log.e(TAG, "Cover Closed, Creating Dotcase Activity");
+            Intent intent = new Intent(mContext, Dotcase.class);
+            intent.setAction(DotcaseConstants.ACTION_COVER_CLOSED);
+            intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
+            intent.addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            startActivity(intent);
         }
-    }
+
+        @Override
+        public void launchDisplay() {
+            if (mOverlay != null) {
+                if (mCoverClosed) {
+                    mOverlay.show();
+                }
+                return;
+            }
+            Intent i = new Intent();
+            i.setClassName("org.cyanogenmod.dotcase", "org.cyanogenmod.dotcase.Dotcase");
+            i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            mContext.startActivity(i);
+        }
+
+        @Override
+        public void dismissDisplay() {
+            mCoverClosed = false;
+            if (mOverlay != null) {
+                mOverlay.hide();
+                return;
+            }
+            Log.e(TAG, "Cover Opened, Killing Dotcase Activity");
+            Intent intent = new Intent(DotcaseConstants.ACTION_KILL_ACTIVITY);
+            mContext.sendBroadcastAsUser(intent, new UserHandle(UserHandle.USER_CURRENT));
+        }
+
+        @Override
+        public void keepOnTop() {
+            Dotcase.sLatency.mark(LatencyTracker.RINGING, LatencyTracker.STAGE_LAUNCH);
+            if (mOverlay != null) {
+                // Nothing can come in front of the overlay
+                if (mCoverClosed) {
+                    mOverlay.show();
+                }
+                return;
+            }
+            Dotcase.sTopActivityGuard.start(mContext);
+        }
+
+        @Override
+        public void stopKeepingOnTop() {
+            if (mOverlay != null) {
+                // Leave the in-call UI or the launcher usable with the cover open
+                if (!mCoverClosed) {
+                    mOverlay.hide();
+                }
+                return;
+            }
+            Dotcase.sTopActivityGuard.stop();
+        }
+
+        @Override
+        public String getCachedCallerName(String number) {
+            return mCallerIdResolver.getCached(number);
+        }
+
+        @Override
+        public void resolveCallerName(String number) {
+            mCallerIdResolver.resolve(number, mCallerIdCallback);
+        }
+
+        @Override
+        public void answerCall() {
+            Dotcase.sLatency.begin(LatencyTracker.SWIPE);
+            getTelecomManager().acceptRingingCall();
+            Dotcase.sLatency.mark(LatencyTracker.SWIPE, LatencyTracker.STAGE_CALL_ACTION);
+        }
+
+        @Override
+        public void endCall() {
+            Dotcase.sLatency.begin(LatencyTracker.SWIPE);
+            getTelecomManager().endCall();
+            Dotcase.sLatency.mark(LatencyTracker.SWIPE, LatencyTracker.STAGE_CALL_ACTION);
+        }
+
+        @Override
+        public void snoozeAlarm() {
+            mContext.sendBroadcast(new Intent("com.android.deskclock.ALARM_SNOOZE"));
+        }
+
+        @Override
+        public void dismissAlarm() {
+            mContext.sendBroadcast(new Intent("com.android.deskclock.ALARM_DISMISS"));
+        }
+
+        @Override
+        public void requestFrame() {
+            Dotcase.sScheduler.requestFrame();
+        }
+
+        @Override
+        public void resetSleepTimer() {
+            Dotcase.sScheduler.resetTimer();
+        }
+
+        private TelecomManager getTelecomManager() {
+            return (TelecomManager) mContext.getSystemService(Context.TELECOM_SERVICE);
+        }
+    };
 
     private void onCoverEvent(int state) {
+        Dotcase.sMetrics.onCoverChanged(state == 0);
+        if (state == 0) {
+            Dotcase.sLatency.begin(LatencyTracker.COVER_CLOSE);
+        }
 
         Message message = new Message();
         message.what = COVER_STATE_CHANGED;
         message.arg1 = state;
 
-        mWakeLock.acquire();
+        if (!mWakeLock.isHeld()) {
+            mWakeLockSince = SystemClock.uptimeMillis();
+        }
+        mWakeLock.acquire(mCoverSettle + WAKE_LOCK_SLACK);
         mHandler.sendMessage(message);
     }
 
     /**
-     * Normalizes a string to lowercase without diacritics
+     * Waits for the end of the settle window while a cover change is
+     * pending, otherwise lets the device sleep again.
      */
-    private static String normalize(String str) {
-        return Normalizer.normalize(str.toLowerCase(), Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                .replaceAll("æ", "ae")
-                .replaceAll("ð", "d")
-                .replaceAll("ø", "o")
-                .replaceAll("þ", "th")
-                .replaceAll("ß", "ss")
-                .replaceAll("œ", "oe");
-    }
-
-    private class ensureTopActivity implements Runnable {
-        Intent i = new Intent();
+    private void settleCover() {
+        CoverStateMachine coverState = Dotcase.sController.getCoverState();
+        if (coverState.hasPendingChange()) {
+            mHandler.removeMessages(COVER_SETTLED);
+            mHandler.sendEmptyMessageAtTime(COVER_SETTLED, coverState.getSettleTime());
+            return;
+        }
 
-        @Override
-        public void run() {
-            while ((Dotcase.sStatus.isRinging() || Dotcase.sStatus.isAlarm())
-                    && Dotcase.sStatus.isOnTop()) {
-                ActivityManager am =
-                        (ActivityManager) mContext.getSystemService(Activity.ACTIVITY_SERVICE);
-                if (!am.getRunningTasks(1).get(0).topActivity.getPackageName().equals(
-                        "org.cyanogenmod.dotcase")) {
-                    i.setClassName("org.cyanogenmod.dotcase", "org.cyanogenmod.dotcase.Dotcase");
-                    i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                    mContext.startActivity(i);
-                }
-                try {
-                    Thread.sleep(100);
-                } catch (IllegalArgumentException e) {
-                    // This isn't going to happen
-                } catch (InterruptedException e) {
-                    Log.i(TAG, "Sleep interrupted", e);
-                }
-            }
+        if (!coverState.isClosed()) {
+            // Opened again before the display was shown
+            Dotcase.sLatency.cancel(LatencyTracker.COVER_CLOSE);
+        }
+        if (mWakeLock.isHeld()) {
+            mWakeLock.release();
+            Dotcase.sMetrics.onWakeLockReleased(
+                    (SystemClock.uptimeMillis() - mWakeLockSince) * 1000000);
         }
     }
 
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter pw, String[] args) {
+        DotcaseState state = Dotcase.sStatus.getState();
+        pw.println("Dotcase state:");
+        pw.println("  ringing=" + state.ringing + " alarm=" + state.alarm
+                + " onTop=" + state.onTop + " pocketed=" + state.pocketed);
+        pw.println("  battery=" + state.batteryLevel + " plugged=" + state.plugged
+                + " notifications=" + state.notifications);
+        pw.println("  overlay=" + (mOverlay != null) + " recording=" + (mEventLog != null
+                && !mEventLog.hasFailed()));
+        CoverStateMachine coverState = Dotcase.sController.getCoverState();
+        pw.println("Cover: " + coverState.getEventCount() + " events, "
+                + coverState.getTransitionCount() + " transitions, settle window "
+                + mCoverSettle + "ms");
+        Dotcase.sMetrics.dump(pw);
+        Dotcase.sLatency.dump(pw);
+    }
+
     public IBinder onBind(Intent intent) {
         return null;
     }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
+import android.os.SystemClock;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+/**
+ * Alternative to DrawView that composes and draws frames on a dedicated
+ * render thread, leaving the UI thread free for gestures.
+ */
+public class DotcaseSurfaceView extends SurfaceView
+        implements SurfaceHolder.Callback, FrameScheduler.Callback {
+    private static final int MSG_REDRAW = 0;
+    private static final int MSG_REDRAW_ALL = 1;
+
+    private final HandlerThread mRenderThread;
+    private final Handler mRenderHandler;
+
+    // Only touched on the render thread
+    private final FrameComposer mComposer;
+    private final DotRasterizer mRasterizer = new DotRasterizer();
+    private final DotFrame mFrame = new DotFrame();
+    private final DotFrame mNextFrame = new DotFrame();
+    private final int[] mDirty = new int[4];
+    private final Rect mDirtyRect = new Rect();
+
+    // Guards the surface, which the UI thread may destroy at any time
+    private final Object mSurfaceLock = new Object();
+    private SurfaceHolder mSurface;
+
+    public DotcaseSurfaceView(Context context) {
+        super(context);
+        mComposer = new FrameComposer();
+
+        mRenderThread = new HandlerThread("DotcaseRender", Process.THREAD_PRIORITY_DISPLAY);
+        mRenderThread.start();
+        mRenderHandler = new Handler(mRenderThread.getLooper()) {
+            @Override
+            public void handleMessage(Message msg) {
+                switch (msg.what) {
+                    case MSG_REDRAW:
+                        renderFrame(false);
+                        break;
+                    case MSG_REDRAW_ALL:
+                        renderFrame(true);
+                        break;
+                }
+            }
+        };
+
+        getHolder().addCallback(this);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Dotcase.sScheduler.addCallback(this);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        Dotcase.sScheduler.removeCallback(this);
+        mRenderThread.quitSafely();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onFrame() {
+        // Hand the frame over to the render thread unless one is still queued
+        if (!mRenderHandler.hasMessages(MSG_REDRAW)) {
+            mRenderHandler.sendEmptyMessage(MSG_REDRAW);
+        }
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        synchronized (mSurfaceLock) {
+            mSurface = holder;
+        }
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        mRenderHandler.sendEmptyMessage(MSG_REDRAW_ALL);
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // Blocks until the render thread is done with the current frame
+        synchronized (mSurfaceLock) {
+            mSurface = null;
+        }
+    }
+
+    /**
+     * Composes the next frame and posts the changed region of it.  A full
+     * redraw is needed whenever the surface contents are undefined.
+     */
+    private void renderFrame(boolean all) {
+        DotcaseState state = Dotcase.sStatus.getState();
+        long start = System.nanoTime();
+        mNextFrame.clear();
+        long delay = mComposer.compose(state, mNextFrame, SystemClock.uptimeMillis());
+        boolean changed = mNextFrame.diff(mFrame, mDirty);
+        Dotcase.sMetrics.onFrameComposed(state, System.nanoTime() - start, changed);
+        Dotcase.sScheduler.scheduleFrame(delay);
+
+        if (!changed && !all) {
+            // What is on screen already shows this state
+            Dotcase.sLatency.onFrameDrawn(state);
+            return;
+        }
+        mFrame.copyFrom(mNextFrame);
+
+        synchronized (mSurfaceLock) {
+            if (mSurface == null) {
+                return;
+            }
+
+            Canvas canvas;
+            if (all) {
+                canvas = mSurface.lockCanvas();
+            } else {
+                mDirtyRect.set(mDirty[0] * DotcaseConstants.DOT_RATIO,
+                               mDirty[1] * DotcaseConstants.DOT_RATIO,
+                               (mDirty[2] + 1) * DotcaseConstants.DOT_RATIO,
+                               (mDirty[3] + 1) * DotcaseConstants.DOT_RATIO);
+                // The surface may grow the dirty region, the canvas is clipped to it
+                canvas = mSurface.lockCanvas(mDirtyRect);
+            }
+            if (canvas == null) {
+                return;
+            }
+
+            long drawStart = System.nanoTime();
+            try {
+                canvas.drawColor(Color.BLACK);
+                mRasterizer.draw(mFrame, canvas);
+            } finally {
+                mSurface.unlockCanvasAndPost(canvas);
+            }
+            Dotcase.sMetrics.onFrameDrawn(System.nanoTime() - drawStart);
+            Dotcase.sLatency.onFrameDrawn(state);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.text.format.DateFormat;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Drives redraws of the dot display from the main looper.
+ *
+ * Frames are delivered in-process to the registered callbacks at the rate the
+ * current screen asks for.  Requests made while a frame is pending are folded
+ * into it, and nothing runs at all while the screen is off.  Screens that do
+ * not animate only get a new frame when the time, the battery or the
+ * notifications change.  The scheduler also puts the device back to sleep
+ * once the display has been left alone for long enough.
+ */
+class FrameScheduler {
+    private static final String TAG = "Dotcase";
+
+    // Time the screen stays on without interaction, doubled while charging
+    private static final long SCREEN_TIMEOUT = 10000;
+
+    // Frames asked for by requestFrame() and by scheduleFrame()
+    private static final int MSG_REQUESTED_FRAME = 0;
+    private static final int MSG_FRAME = 1;
+    private static final int MSG_SLEEP = 2;
+
+    interface Callback {
+        /**
+         * Called on the main thread for every frame.
+         */
+        void onFrame();
+    }
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper()) {
+        @Override
+        public void handleMessage(Message msg) {
+            switch (msg.what) {
+                case MSG_REQUESTED_FRAME:
+                case MSG_FRAME:
+                    doFrame();
+                    break;
+                case MSG_SLEEP:
+                    handleSleep();
+                    break;
+            }
+        }
+    };
+
+    private final IntentFilter mFilter = new IntentFilter();
+    private final List<Callback> mCallbacks = new ArrayList<Callback>();
+
+    private Context mContext;
+    private PowerManager mPowerManager;
+
+    private volatile boolean mRunning = false;
+    private volatile boolean mScreenOn = false;
+
+    FrameScheduler() {
+        mFilter.addAction(Intent.ACTION_SCREEN_ON);
+        mFilter.addAction(Intent.ACTION_SCREEN_OFF);
+        mFilter.addAction(Intent.ACTION_BATTERY_CHANGED);
+        mFilter.addAction(Intent.ACTION_TIME_TICK);
+        mFilter.addAction(Intent.ACTION_TIME_CHANGED);
+        mFilter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+    }
+
+    /**
+     * Starts delivering frames.  Must be called on the main thread.
+     */
+    void start(Context context) {
+        if (mRunning) {
+            return;
+        }
+
+        mContext = context.getApplicationContext();
+        mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
+        mScreenOn = mPowerManager.isInteractive();
+        mRunning = true;
+        // Battery status is sticky and gets delivered right away
+        mContext.registerReceiver(receiver, mFilter);
+
+        updateTime();
+        extendSleepTime(SystemClock.uptimeMillis());
+        requestFrame();
+    }
+
+    /**
+     * Stops delivering frames.  Must be called on the main thread.
+     */
+    void stop() {
+        if (!mRunning) {
+            return;
+        }
+
+        mRunning = false;
+        mHandler.removeCallbacksAndMessages(null);
+        try {
+            mContext.unregisterReceiver(receiver);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Failed to unregister receiver", e);
+        }
+    }
+
+    void addCallback(Callback callback) {
+        mCallbacks.add(callback);
+    }
+
+    void removeCallback(Callback callback) {
+        mCallbacks.remove(callback);
+    }
+
+    /**
+     * Asks for a frame as soon as possible.  Safe to call from any thread.
+     */
+    void requestFrame() {
+        if (!mRunning || !mScreenOn) {
+            return;
+        }
+        // A pending timed frame is only replaced, not coalesced with
+        mHandler.removeMessages(MSG_FRAME);
+        boolean coalesced = mHandler.hasMessages(MSG_REQUESTED_FRAME);
+        Dotcase.sMetrics.onFrameRequested(coalesced);
+        if (!coalesced) {
+            mHandler.sendEmptyMessage(MSG_REQUESTED_FRAME);
+        }
+    }
+
+    /**
+     * Schedules the next frame as needed by the screen just composed, unless
+     * an earlier one is already pending.  Safe to call from any thread.
+     *
+     * @param delay milliseconds until the next frame, or FrameComposer.FRAME_INTERVAL_NONE
+     */
+    void scheduleFrame(long delay) {
+        if (!mRunning || !mScreenOn || delay < 0 || mHandler.hasMessages(MSG_FRAME)
+                || mHandler.hasMessages(MSG_REQUESTED_FRAME)) {
+            return;
+        }
+        mHandler.sendEmptyMessageDelayed(MSG_FRAME, delay);
+    }
+
+    /**
+     * Restarts the screen timeout from now.  Safe to call from any thread.
+     */
+    void resetTimer() {
+        if (!mRunning || !mScreenOn) {
+            return;
+        }
+        extendSleepTime(SystemClock.uptimeMillis());
+    }
+
+    private void doFrame() {
+        for (int i = 0; i < mCallbacks.size(); i++) {
+            mCallbacks.get(i).onFrame();
+        }
+    }
+
+    private void handleSleep() {
+        long now = SystemClock.uptimeMillis();
+
+        if (Dotcase.sStatus.isRinging() || Dotcase.sStatus.isAlarm()) {
+            extendSleepTime(now);
+        } else {
+            // SCREEN_OFF will stop the frames
+            mPowerManager.goToSleep(now);
+        }
+    }
+
+    private void extendSleepTime(long now) {
+        long timeout = Dotcase.sStatus.isPlugged() ? 2 * SCREEN_TIMEOUT : SCREEN_TIMEOUT;
+        mHandler.removeMessages(MSG_SLEEP);
+        mHandler.sendEmptyMessageAtTime(MSG_SLEEP, now + timeout);
+    }
+
+    private void updateTime() {
+        Calendar calendar = Calendar.getInstance();
+        if (Dotcase.sStatus.setTime(calendar.get(Calendar.HOUR_OF_DAY),
+                calendar.get(Calendar.MINUTE), DateFormat.is24HourFormat(mContext))) {
+            requestFrame();
+        }
+    }
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (intent.getAction().equals(Intent.ACTION_BATTERY_CHANGED)) {
+                int rawlevel = intent.getIntExtra("level", -1);
+                double scale = intent.getIntExtra("scale", -1);
+                double level = -1;
+                if (rawlevel >= 0 && scale > 0) {
+                    level = rawlevel / scale;
+                }
+                if (Dotcase.sStatus.setBattery(level, intent.getIntExtra("plugged", -1) > 0)) {
+                    requestFrame();
+                }
+            } else if (intent.getAction().equals(Intent.ACTION_SCREEN_ON)) {
+                mScreenOn = true;
+                extendSleepTime(SystemClock.uptimeMillis());
+                updateTime();
+                requestFrame();
+            } else if (intent.getAction().equals(Intent.ACTION_SCREEN_OFF)) {
+                mScreenOn = false;
+                mHandler.removeCallbacksAndMessages(null);
+            } else {
+                // Minute ticks, clock changes, time zone or 12/24h format changes
+                updateTime();
+            }
+        }
+    };
+}
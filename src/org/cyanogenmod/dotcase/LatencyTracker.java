@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import android.os.Trace;
+import android.util.Log;
+
+import java.io.PrintWriter;
+
+/**
+ * Measures how long the display takes to react to the events that matter
+ * most: closing the cover, an incoming call and swiping to answer or end it.
+ *
+ * Each of these paths is an async trace section from the event to the
+ * first frame on screen that shows its outcome, with a zero length section
+ * marking every stage passed on the way.  The time from the event to each
+ * stage is aggregated into a histogram.  Thread safe.
+ */
+class LatencyTracker {
+    private static final String TAG = "Dotcase";
+
+    // Paths
+    static final int COVER_CLOSE = 0;
+    static final int RINGING = 1;
+    static final int SWIPE = 2;
+
+    // Stages, not every path passes all of them
+    static final int STAGE_EVENT = 0;
+    static final int STAGE_HANDLER = 1;
+    static final int STAGE_LAUNCH = 2;
+    static final int STAGE_CREATE = 3;
+    static final int STAGE_RESUME = 4;
+    static final int STAGE_CALL_ACTION = 5;
+    static final int STAGE_CALL_IDLE = 6;
+    static final int STAGE_DRAWN = 7;
+
+    private static final String[] PATH_NAMES = { "cover-close", "ringing", "swipe" };
+    private static final String[] STAGE_NAMES = {
+        "event", "handler", "launch", "create", "resume", "call-action", "call-idle", "drawn"
+    };
+
+    private static final int PATHS = PATH_NAMES.length;
+    private static final int STAGES = STAGE_NAMES.length;
+
+    // Trace section names per path and stage, built up front
+    private final String[] mPathSections = new String[PATHS];
+    private final String[][] mStageSections = new String[PATHS][STAGES];
+
+    private final LatencyHistogram[][] mHistograms = new LatencyHistogram[PATHS][STAGES];
+    private final long[] mStartNanos = new long[PATHS];
+    private final boolean[] mActive = new boolean[PATHS];
+    // Async sections of different runs need distinct cookies
+    private final int[] mCookies = new int[PATHS];
+    private int mLastCookie;
+
+    LatencyTracker() {
+        for (int path = 0; path < PATHS; path++) {
+            mPathSections[path] = "Dotcase " + PATH_NAMES[path];
+            for (int stage = 0; stage < STAGES; stage++) {
+                mStageSections[path][stage] = "Dotcase " + PATH_NAMES[path] + " "
+                        + STAGE_NAMES[stage];
+                mHistograms[path][stage] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Starts timing a path, abandoning a previous run of it that never got
+     * its frame.
+     */
+    synchronized void begin(int path) {
+        if (mActive[path]) {
+            Trace.asyncTraceEnd(Trace.TRACE_TAG_APP, mPathSections[path], mCookies[path]);
+        }
+        mActive[path] = true;
+        mStartNanos[path] = System.nanoTime();
+        mCookies[path] = ++mLastCookie;
+        Trace.asyncTraceBegin(Trace.TRACE_TAG_APP, mPathSections[path], mCookies[path]);
+        mark(path, STAGE_EVENT);
+    }
+
+    /**
+     * Records that a path being timed reached a stage.
+     */
+    synchronized void mark(int path, int stage) {
+        if (!mActive[path]) {
+            return;
+        }
+        Trace.beginSection(mStageSections[path][stage]);
+        Trace.endSection();
+        mHistograms[path][stage].record((System.nanoTime() - mStartNanos[path]) / 1000);
+    }
+
+    /**
+     * Stops timing a path whose event turned out not to need a frame.
+     */
+    synchronized void cancel(int path) {
+        if (!mActive[path]) {
+            return;
+        }
+        mActive[path] = false;
+        Trace.asyncTraceEnd(Trace.TRACE_TAG_APP, mPathSections[path], mCookies[path]);
+    }
+
+    /**
+     * Called once a frame composed from the given state is on screen.  Ends
+     * every path whose outcome the frame shows.
+     */
+    synchronized void onFrameDrawn(DotcaseState state) {
+        end(COVER_CLOSE);
+        if (state.ringing) {
+            end(RINGING);
+        } else {
+            end(SWIPE);
+        }
+    }
+
+    void dump(PrintWriter pw) {
+        pw.println("Latencies from the event:");
+        for (int path = 0; path < PATHS; path++) {
+            pw.println("  " + PATH_NAMES[path] + ":");
+            for (int stage = 0; stage < STAGES; stage++) {
+                LatencyHistogram histogram = mHistograms[path][stage];
+                if (histogram.getCount() > 0) {
+                    pw.println("    " + STAGE_NAMES[stage] + ": " + histogram);
+                }
+            }
+        }
+    }
+
+    private void end(int path) {
+        if (!mActive[path]) {
+            return;
+        }
+        mark(path, STAGE_DRAWN);
+        mActive[path] = false;
+        Trace.asyncTraceEnd(Trace.TRACE_TAG_APP, mPathSections[path], mCookies[path]);
+        Log.d(TAG, PATH_NAMES[path] + " to first frame: "
+                + (System.nanoTime() - mStartNanos[path]) / 1000000 + "ms");
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.LruCache;
+
+/**
+ * Cache of horizontal dot runs rasterized once per color and length, so that
+ * stamping a run costs a single drawBitmap() instead of one drawRoundRect()
+ * per dot.
+ */
+class SpriteAtlas {
+    // The busiest screen in tools/goldens stamps about 600KB of runs; this
+    // keeps one whole screen cached, the least recently used runs go first
+    private static final int MAX_SIZE_BYTES = 1024 * 1024;
+
+    private final Paint mPaint = new Paint();
+    private final LruCache<Integer, Bitmap> mCache;
+    // Boxed cache keys, by color and length, so that lookups do not allocate
+    private final Integer[][] mKeys = new Integer[DotFrame.COLORS][DotFrame.WIDTH + 1];
+    private final int mDotRatio = DotcaseConstants.DOT_RATIO;
+
+    SpriteAtlas() {
+        mPaint.setAntiAlias(true);
+        mCache = new LruCache<Integer, Bitmap>(MAX_SIZE_BYTES) {
+            @Override
+            protected int sizeOf(Integer key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+        for (int color = 0; color < DotFrame.COLORS; color++) {
+            for (int length = 0; length <= DotFrame.WIDTH; length++) {
+                mKeys[color][length] = color * (DotFrame.WIDTH + 1) + length;
+            }
+        }
+    }
+
+    /**
+     * Draws a horizontal run of dots of the same color starting at (x, y).
+     */
+    void drawRun(int color, int length, int x, int y, Canvas canvas) {
+        Integer key = mKeys[color][length];
+        Bitmap run = mCache.get(key);
+        if (run == null) {
+            run = rasterize(color, length);
+            mCache.put(key, run);
+        }
+        canvas.drawBitmap(run, x * mDotRatio, y * mDotRatio, null);
+    }
+
+    private Bitmap rasterize(int color, int length) {
+        Bitmap bitmap = Bitmap.createBitmap(length * mDotRatio, mDotRatio,
+                Bitmap.Config.ARGB_8888);
+        int paint = DotcaseConstants.paintColors[color + 1];
+        if (paint == Color.TRANSPARENT) {
+            return bitmap;
+        }
+
+        Canvas canvas = new Canvas(bitmap);
+        mPaint.setColor(paint);
+        for (int j = 0; j < length; j++) {
+            canvas.drawRoundRect((j * mDotRatio + 3),
+                                 3,
+                                 ((j + 1) * mDotRatio - 3),
+                                 (mDotRatio - 3),
+                                 20, 20, mPaint);
+        }
+        return bitmap;
+    }
+}
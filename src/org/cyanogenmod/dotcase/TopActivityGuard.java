@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.PowerManager;
+import android.util.Log;
+
+/**
+ * Keeps the dot display in front while a call rings or an alarm goes off.
+ *
+ * The activity reports when its window loses focus, which happens for
+ * anything coming in front of it, down to dialogs, translucent activities
+ * and heads-up notifications, and the guard brings it back.  No work is
+ * done while the display keeps focus.  Losing focus while the screen is off
+ * is left alone, SCREEN_ON brings the display back then.
+ */
+class TopActivityGuard {
+    private static final String TAG = "Dotcase";
+
+    private static final int MSG_CHECK = 0;
+
+    // Lets a finishing activity or a turning off screen settle before the
+    // display is brought back, as often as the old poll looked
+    private static final long CHECK_DELAY = 100;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper()) {
+        @Override
+        public void handleMessage(Message msg) {
+            switch (msg.what) {
+                case MSG_CHECK:
+                    check();
+                    break;
+            }
+        }
+    };
+
+    private Context mContext;
+    private PowerManager mPowerManager;
+
+    // Only touched on the main thread
+    private boolean mActive = false;
+    private boolean mDisplayFocused = false;
+
+    /**
+     * Starts keeping the display in front.  Safe to call from any thread.
+     */
+    void start(Context context) {
+        synchronized (this) {
+            if (mContext == null) {
+                mContext = context.getApplicationContext();
+                mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
+            }
+        }
+        mHandler.post(mStart);
+    }
+
+    /**
+     * Stops keeping the display in front.  Safe to call from any thread.
+     */
+    void stop() {
+        mHandler.post(mStop);
+    }
+
+    /**
+     * Called by the activity when its window gains focus.
+     */
+    void onDisplayFocused() {
+        mDisplayFocused = true;
+        mHandler.removeMessages(MSG_CHECK);
+    }
+
+    /**
+     * Called by the activity when its window loses focus.
+     */
+    void onDisplayUnfocused() {
+        mDisplayFocused = false;
+        if (mActive) {
+            mHandler.removeMessages(MSG_CHECK);
+            mHandler.sendEmptyMessageDelayed(MSG_CHECK, CHECK_DELAY);
+        }
+    }
+
+    private final Runnable mStart = new Runnable() {
+        @Override
+        public void run() {
+            mActive = true;
+            check();
+        }
+    };
+
+    private final Runnable mStop = new Runnable() {
+        @Override
+        public void run() {
+            mActive = false;
+            mHandler.removeMessages(MSG_CHECK);
+        }
+    };
+
+    private void check() {
+        if (!mActive || mDisplayFocused) {
+            return;
+        }
+        if (!(Dotcase.sStatus.isRinging() || Dotcase.sStatus.isAlarm())
+                || !Dotcase.sStatus.isOnTop()) {
+            // Missed a stop, the call or alarm is over
+            mActive = false;
+            return;
+        }
+        if (!mPowerManager.isInteractive()) {
+            return;
+        }
+
+        Log.d(TAG, "Dotcase lost the top, relaunching");
+        Dotcase.sMetrics.onRelaunch();
+        Intent i = new Intent();
+        i.setClassName("org.cyanogenmod.dotcase", "org.cyanogenmod.dotcase.Dotcase");
+        i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        mContext.startActivity(i);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * Minimal microbenchmark harness for the host JVM.
+ *
+ * Every benchmark is warmed up until the JIT has settled, then timed over a
+ * number of batches.  The fastest batch is reported, together with the bytes
+ * allocated per operation as counted by the JVM for the running thread.
+ */
+class BenchmarkRunner {
+    interface Benchmark {
+        /**
+         * Runs the operation reps times.
+         *
+         * @return any value depending on the work done, so it is not optimized away
+         */
+        long run(int reps);
+    }
+
+    static final class Result {
+        final String name;
+        final double nanosPerOp;
+        // Negative if the JVM cannot count allocations
+        final double bytesPerOp;
+
+        Result(String name, double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %12.1f ns/op %10s B/op", name, nanosPerOp,
+                    bytesPerOp < 0 ? "n/a" : String.format("%.1f", bytesPerOp));
+        }
+    }
+
+    private static final long WARMUP_NANOS = 1000000000L;
+    private static final long BATCH_NANOS = 100000000L;
+    private static final int BATCHES = 10;
+
+    private final AllocationCounter mAllocations = new AllocationCounter();
+
+    // Keeps results alive so that benchmarks cannot be dead code eliminated
+    private long mSink;
+
+    Result measure(String name, Benchmark benchmark) {
+        // Warm up, doubling the batch until it takes long enough to time
+        int reps = 1;
+        long start = System.nanoTime();
+        while (true) {
+            long batchStart = System.nanoTime();
+            mSink += benchmark.run(reps);
+            long elapsed = System.nanoTime() - batchStart;
+            if (System.nanoTime() - start >= WARMUP_NANOS && elapsed >= BATCH_NANOS / 2) {
+                break;
+            }
+            if (elapsed < BATCH_NANOS) {
+                reps *= 2;
+            }
+        }
+
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        for (int i = 0; i < BATCHES; i++) {
+            long bytes = mAllocations.allocatedBytes();
+            long batchStart = System.nanoTime();
+            mSink += benchmark.run(reps);
+            long elapsed = System.nanoTime() - batchStart;
+            bytes = mAllocations.allocatedBytes() - bytes;
+
+            bestNanos = Math.min(bestNanos, (double) elapsed / reps);
+            bestBytes = Math.min(bestBytes, (double) bytes / reps);
+        }
+
+        return new Result(name, bestNanos, mAllocations.isSupported() ? bestBytes : -1);
+    }
+
+    long getSink() {
+        return mSink;
+    }
+}
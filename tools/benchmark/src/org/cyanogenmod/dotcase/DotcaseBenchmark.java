@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Host benchmarks for the hot paths of the dot display: composing each
+ * screen, small glyph lookups, caller name transliteration and notification
+ * package mapping.
+ *
+ * Usage: java -jar dotcase-benchmark.jar [name filter]
+ */
+public class DotcaseBenchmark {
+    // Frame time step, so animated screens move through their keyframes
+    private static final long FRAME_STEP = 16;
+
+    private static final String[] NAMES = {
+        "José Ñúñez", "Ærøskøbing Þór", "Владимир Щукин", "Αλέξανδρος",
+        "１２３ＡＢＣ", "Nguyễn Văn Ánh", "O’Brien – Jr.", "Zoë Saldaña"
+    };
+
+    private static final String[] TRANSLITERATED = {
+        "jose nunez", "aeroskobing thor", "vladimir shchukin", "alexandros",
+        "123abc", "nguyen van anh", "o'brien - jr.", "zoe saldana"
+    };
+
+    private static final String[] PACKAGES = {
+        "com.google.android.gm", "com.whatsapp", "com.android.phone",
+        "com.twitter.android", "com.example.unknown", "com.facebook.orca",
+        "com.android.systemui", "com.google.android.apps.inbox"
+    };
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+
+        if (!checkTransliteration()) {
+            System.exit(1);
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        List<BenchmarkRunner.Result> results = new ArrayList<BenchmarkRunner.Result>();
+
+        DotcaseState clock = SampleStates.clockState().build();
+
+        DotcaseState.Builder builder = SampleStates.clockState();
+        builder.notifications = Arrays.asList(Notification.GMAIL, Notification.WHATSAPP,
+                Notification.MISSED_CALL, Notification.TWITTER, Notification.MMS,
+                Notification.DOTS);
+        DotcaseState notifications = builder.build();
+
+        builder = SampleStates.clockState();
+        builder.ringing = true;
+        builder.callerNumber = SampleStates.CALLER_NUMBER;
+        builder.callerName = Transliterator.transliterate(SampleStates.LONG_NAME);
+        DotcaseState ringing = builder.build();
+
+        builder = SampleStates.clockState();
+        builder.alarm = true;
+        DotcaseState alarm = builder.build();
+
+        // Notifications and battery take turns on the clock screen
+        long notificationsPage = 0;
+        long batteryPage = 1500;
+
+        add(results, runner, filter, "compose/clock", composeBenchmark(clock, 0, 0));
+        add(results, runner, filter, "compose/clock+notifications",
+                composeBenchmark(notifications, notificationsPage, 0));
+        add(results, runner, filter, "compose/clock+battery",
+                composeBenchmark(notifications, batteryPage, 0));
+        add(results, runner, filter, "compose/ringing-long-name",
+                composeBenchmark(ringing, 0, FRAME_STEP));
+        add(results, runner, filter, "compose/alarm", composeBenchmark(alarm, 0, FRAME_STEP));
+
+        add(results, runner, filter, "glyph/getSmallCharSprite", new BenchmarkRunner.Benchmark() {
+            @Override
+            public long run(int reps) {
+                long sink = 0;
+                for (int i = 0; i < reps; i++) {
+                    char c = (char) (' ' + (i & 0x3f));
+                    sink += DotcaseConstants.getSmallCharSprite(c).length
+                            + DotcaseConstants.getSmallCharWidth(c);
+                }
+                return sink;
+            }
+        });
+
+        add(results, runner, filter, "text/transliterate", new BenchmarkRunner.Benchmark() {
+            @Override
+            public long run(int reps) {
+                long sink = 0;
+                for (int i = 0; i < reps; i++) {
+                    sink += Transliterator.transliterate(NAMES[i % NAMES.length]).length();
+                }
+                return sink;
+            }
+        });
+
+        add(results, runner, filter, "notification/notificationMap",
+                new BenchmarkRunner.Benchmark() {
+                    @Override
+                    public long run(int reps) {
+                        long sink = 0;
+                        for (int i = 0; i < reps; i++) {
+                            String packageName = PACKAGES[i % PACKAGES.length];
+                            Notification type = DotcaseConstants.notificationMap.get(packageName);
+                            sink += type != null ? type.ordinal() : -1;
+                        }
+                        return sink;
+                    }
+                });
+
+        for (BenchmarkRunner.Result result : results) {
+            System.out.println(result);
+        }
+        if (runner.getSink() == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void add(List<BenchmarkRunner.Result> results, BenchmarkRunner runner,
+            String filter, String name, BenchmarkRunner.Benchmark benchmark) {
+        if (name.contains(filter)) {
+            results.add(runner.measure(name, benchmark));
+        }
+    }
+
+    private static BenchmarkRunner.Benchmark composeBenchmark(final DotcaseState state,
+            final long start, final long step) {
+        return new BenchmarkRunner.Benchmark() {
+            private final FrameComposer mComposer = new FrameComposer();
+            private final DotFrame mFrame = new DotFrame();
+            private long mNow = start;
+
+            @Override
+            public long run(int reps) {
+                long sink = 0;
+                for (int i = 0; i < reps; i++) {
+                    mFrame.clear();
+                    sink += mComposer.compose(state, mFrame, mNow);
+                    mNow += step;
+                }
+                return sink + mFrame.get(0, 0);
+            }
+        };
+    }
+
+    /**
+     * Benchmarks are only meaningful if the output is still right.
+     */
+    private static boolean checkTransliteration() {
+        boolean ok = true;
+        for (int i = 0; i < NAMES.length; i++) {
+            String result = Transliterator.transliterate(NAMES[i]);
+            if (!result.equals(TRANSLITERATED[i])) {
+                System.err.println("transliterate(\"" + NAMES[i] + "\") returned \""
+                        + result + "\", expected \"" + TRANSLITERATED[i] + "\"");
+                ok = false;
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,14 @@
+LOCAL_PATH:= $(call my-dir)
+
+# Helpers shared by the host tools, so that they measure and set up the
+# screens the same way
+include $(CLEAR_VARS)
+
+LOCAL_MODULE := dotcase-tools-common
+LOCAL_MODULE_TAGS := optional
+
+LOCAL_SRC_FILES := $(call all-java-files-under, src)
+
+LOCAL_JAVA_LIBRARIES := dotcase-core
+
+include $(BUILD_HOST_JAVA_LIBRARY)
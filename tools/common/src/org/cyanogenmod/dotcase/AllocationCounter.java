@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counts the bytes allocated by the calling thread, where the JVM supports
+ * it.
+ */
+final class AllocationCounter {
+    private final com.sun.management.ThreadMXBean mThreads;
+
+    AllocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads)
+                        .isThreadAllocatedMemorySupported()) {
+            mThreads = (com.sun.management.ThreadMXBean) threads;
+            mThreads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            mThreads = null;
+        }
+    }
+
+    boolean isSupported() {
+        return mThreads != null;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread, or 0 if
+     * allocations cannot be counted.
+     */
+    long allocatedBytes() {
+        return mThreads != null
+                ? mThreads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase;
+
+/**
+ * The sample states the host tools compose and replay.
+ */
+final class SampleStates {
+    static final String CALLER_NUMBER = "+15551234567";
+    // Long enough to scroll, with accents to transliterate
+    static final String LONG_NAME = "Maximiliano Fernández-Castellanos  ";
+
+    private SampleStates() {
+    }
+
+    /**
+     * Returns the clock screen at 10:42 with the battery at 80%.
+     */
+    static DotcaseState.Builder clockState() {
+        DotcaseState.Builder builder = new DotcaseState.Builder();
+        builder.hour = 10;
+        builder.minute = 42;
+        builder.batteryLevel = 0.8;
+        return builder;
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import org.cyanogenmod.dotcase.DotcaseConstants.Notification;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regression suite for FrameComposer.
+ *
+ * Renders every screen the display can show to a DotFrame and compares it
+ * with the golden frames checked in next to this tool, so that rendering
+ * changes can be told apart from optimizations.  Each screen must also
+ * compose without allocating once the JIT has settled; its compose time is
+ * reported, as it depends on the host.
+ *
+ * Usage: java -jar dotcase-goldens.jar goldens.txt [--update | --budgets]
+ * With --update the golden file is rewritten from the current output, with
+ * --budgets a screen composing slower than its time budget fails.
+ */
+public class GoldenFrames {
+    // Budgets per composed frame; times are only enforced with --budgets
+    private static final long STATIC_NANOS = 50000;
+    private static final long ANIMATED_NANOS = 100000;
+    private static final long ALLOCATED_BYTES = 0;
+
+    private static final int WARMUP_REPS = 20000;
+    private static final int BATCH_REPS = 2000;
+    private static final int BATCHES = 5;
+
+    static final class Screen {
+        final String name;
+        final DotcaseState state;
+        // Time of the frame, with the screen first shown at 0
+        final long time;
+        final long maxNanos;
+
+        Screen(String name, DotcaseState state, long time, long maxNanos) {
+            this.name = name;
+            this.state = state;
+            this.time = time;
+            this.maxNanos = maxNanos;
+        }
+    }
+
+    private final AllocationCounter mAllocations = new AllocationCounter();
+    private long mSink;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: GoldenFrames goldens.txt [--update | --budgets]");
+            System.exit(2);
+        }
+        String path = args[0];
+        boolean update = args.length > 1 && args[1].equals("--update");
+        boolean budgets = args.length > 1 && args[1].equals("--budgets");
+
+        GoldenFrames suite = new GoldenFrames();
+        List<Screen> screens = buildScreens();
+        Map<String, String> frames = new LinkedHashMap<String, String>();
+        for (Screen screen : screens) {
+            frames.put(screen.name, render(screen));
+        }
+
+        if (update) {
+            writeGoldens(path, frames);
+            System.out.println("Wrote " + frames.size() + " frames to " + path);
+            return;
+        }
+
+        Map<String, String> goldens = readGoldens(path);
+        int failures = 0;
+        for (Screen screen : screens) {
+            String expected = goldens.remove(screen.name);
+            String actual = frames.get(screen.name);
+            if (expected == null) {
+                System.out.println("FAIL " + screen.name + ": no golden frame");
+                failures++;
+            } else if (!expected.equals(actual)) {
+                System.out.println("FAIL " + screen.name + ": frame differs");
+                printDiff(expected, actual);
+                failures++;
+            }
+
+            failures += suite.checkBudget(screen, budgets);
+        }
+        for (String name : goldens.keySet()) {
+            System.out.println("FAIL " + name + ": golden frame of an unknown screen");
+            failures++;
+        }
+
+        System.out.println(screens.size() + " screens, " + failures + " failures");
+        if (suite.mSink == 42) {
+            System.out.println();
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Screen> buildScreens() {
+        List<Screen> screens = new ArrayList<Screen>();
+
+        // Clock in both formats, around the 12h wrap points
+        int[][] times = { { 0, 0 }, { 9, 5 }, { 12, 0 }, { 13, 42 }, { 23, 59 } };
+        for (int[] time : times) {
+            for (int format = 0; format < 2; format++) {
+                DotcaseState.Builder b = SampleStates.clockState();
+                b.hour = time[0];
+                b.minute = time[1];
+                b.is24Hour = format == 1;
+                screens.add(new Screen(String.format("clock/%s-%02d%02d",
+                        b.is24Hour ? "24h" : "12h", time[0], time[1]), b.build(), 0,
+                        STATIC_NANOS));
+            }
+        }
+
+        // Both sides of every battery color band, unknown and charging
+        double[] levels = { 1.0, 0.5, 0.49, 0.25, 0.24, 0.02, 0, -1 };
+        for (double level : levels) {
+            DotcaseState.Builder b = SampleStates.clockState();
+            b.batteryLevel = level;
+            screens.add(new Screen("battery/" + (level < 0 ? "unknown"
+                    : String.format("%03d", Math.round(level * 100))), b.build(), 0,
+                    STATIC_NANOS));
+        }
+        for (double level : new double[] { 0.3, 1.0 }) {
+            DotcaseState.Builder b = SampleStates.clockState();
+            b.batteryLevel = level;
+            b.plugged = true;
+            screens.add(new Screen(String.format("battery/charging-%03d",
+                    Math.round(level * 100)), b.build(), 0, STATIC_NANOS));
+        }
+
+        // Every notification icon, every fill of the grid and the battery page
+        for (Notification notification : Notification.values()) {
+            screens.add(notificationScreen("notifications/" + notification.name().toLowerCase(),
+                    Collections.singletonList(notification), 0));
+        }
+        List<Notification> all = Arrays.asList(Notification.values());
+        for (int count = 2; count <= 7; count++) {
+            screens.add(notificationScreen("notifications/count-" + count,
+                    posted(all.subList(1, count + 1)), 0));
+        }
+        screens.add(notificationScreen("notifications/battery-page", posted(all.subList(1, 4)),
+                1500));
+
+        // Ringer keyframes for a short caller, and the scrolling long name
+        for (int key = 0; key < 6; key++) {
+            screens.add(new Screen("ringing/short-" + key,
+                    ringingState("+15551234", "bob  "), key * 500, ANIMATED_NANOS));
+        }
+        screens.add(new Screen("ringing/unknown",
+                ringingState(SampleStates.CALLER_NUMBER, "  "), 0, ANIMATED_NANOS));
+        screens.add(new Screen("ringing/restricted",
+                ringingState("", Transliterator.transliterate("restricted") + "  "), 0,
+                ANIMATED_NANOS));
+        long[] scroll = { 0, 3000, 3000 + 8 * Marquee.STEP_INTERVAL,
+                3000 + 40 * Marquee.STEP_INTERVAL };
+        for (int i = 0; i < scroll.length; i++) {
+            screens.add(new Screen("ringing/long-" + i,
+                    ringingState(SampleStates.CALLER_NUMBER,
+                            Transliterator.transliterate(SampleStates.LONG_NAME)),
+                    scroll[i], ANIMATED_NANOS));
+        }
+
+        // Alarm keyframes: snooze hint for the first half, cancel hint after
+        for (int key = 0; key < 12; key++) {
+            DotcaseState.Builder b = SampleStates.clockState();
+            b.alarm = true;
+            screens.add(new Screen(String.format("alarm/%s-%02d",
+                    key < 6 ? "snooze" : "cancel", key), b.build(), key * 500, ANIMATED_NANOS));
+        }
+        DotcaseState.Builder b = SampleStates.clockState();
+        b.alarm = true;
+        b.hour = 7;
+        b.is24Hour = true;
+        screens.add(new Screen("alarm/24h", b.build(), 0, ANIMATED_NANOS));
+
+        return screens;
+    }
+
+    private static Screen notificationScreen(String name, List<Notification> notifications,
+            long time) {
+        DotcaseState.Builder b = SampleStates.clockState();
+        b.notifications = notifications;
+        return new Screen(name, b.build(), time, STATIC_NANOS);
+    }
+
+    /**
+     * Returns the icons shown for the given apps' notifications, overflow
+     * included, as the listener would build them.
+     */
+    private static List<Notification> posted(List<Notification> notifications) {
+        NotificationIndex index = new NotificationIndex();
+        for (Notification notification : notifications) {
+            for (Map.Entry<String, Notification> entry
+                    : DotcaseConstants.notificationMap.entrySet()) {
+                if (entry.getValue() == notification) {
+                    index.post(notification.name(), entry.getKey());
+                    break;
+                }
+            }
+        }
+        return index.getVisible();
+    }
+
+    private static DotcaseState ringingState(String number, String name) {
+        DotcaseState.Builder b = SampleStates.clockState();
+        b.ringing = true;
+        b.callerNumber = number;
+        b.callerName = name;
+        return b.build();
+    }
+
+    /**
+     * Renders a screen shown at 0 as it looks at its time, one text row per
+     * dot row: "." for empty dots, base 36 palette indices minus one otherwise.
+     */
+    private static String render(Screen screen) {
+        FrameComposer composer = new FrameComposer();
+        DotFrame frame = new DotFrame();
+        composer.compose(screen.state, frame, 0);
+        frame.clear();
+        composer.compose(screen.state, frame, screen.time);
+
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < DotFrame.HEIGHT; y++) {
+            for (int x = 0; x < DotFrame.WIDTH; x++) {
+                int color = frame.get(x, y);
+                sb.append(color < 0 ? '.' : Character.forDigit(color, Character.MAX_RADIX));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the number of budgets exceeded by a screen.
+     */
+    private int checkBudget(Screen screen, boolean enforceTime) {
+        FrameComposer composer = new FrameComposer();
+        DotFrame frame = new DotFrame();
+        composer.compose(screen.state, frame, 0);
+        composeRepeatedly(composer, frame, screen, WARMUP_REPS);
+
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < BATCHES; i++) {
+            long bytes = mAllocations.allocatedBytes();
+            long start = System.nanoTime();
+            composeRepeatedly(composer, frame, screen, BATCH_REPS);
+            long elapsed = System.nanoTime() - start;
+            bytes = mAllocations.allocatedBytes() - bytes;
+
+            bestNanos = Math.min(bestNanos, elapsed / BATCH_REPS);
+            bestBytes = Math.min(bestBytes, bytes / BATCH_REPS);
+        }
+
+        int failures = 0;
+        if (enforceTime && bestNanos > screen.maxNanos) {
+            System.out.println("FAIL " + screen.name + ": " + bestNanos + " ns/frame, budget "
+                    + screen.maxNanos);
+            failures++;
+        } else {
+            System.out.println("TIME " + screen.name + ": " + bestNanos + " ns/frame, budget "
+                    + screen.maxNanos);
+        }
+        if (mAllocations.isSupported() && bestBytes > ALLOCATED_BYTES) {
+            System.out.println("FAIL " + screen.name + ": " + bestBytes + " B/frame, budget "
+                    + ALLOCATED_BYTES);
+            failures++;
+        }
+        return failures;
+    }
+
+    private void composeRepeatedly(FrameComposer composer, DotFrame frame, Screen screen,
+            int reps) {
+        for (int i = 0; i < reps; i++) {
+            frame.clear();
+            mSink += composer.compose(screen.state, frame, screen.time);
+        }
+        mSink += frame.get(0, 0);
+    }
+
+
+    private static void printDiff(String expected, String actual) {
+        String[] expectedRows = expected.split("\n");
+        String[] actualRows = actual.split("\n");
+        for (int y = 0; y < Math.max(expectedRows.length, actualRows.length); y++) {
+            String e = y < expectedRows.length ? expectedRows[y] : "";
+            String a = y < actualRows.length ? actualRows[y] : "";
+            System.out.println(String.format("  %2d %s %s %s", y, e, e.equals(a) ? " " : "|", a));
+        }
+    }
+
+    /**
+     * Golden files hold "frame <name>" followed by the rendered rows of each
+     * frame; empty lines and lines starting with "#" are ignored.
+     */
+    private static Map<String, String> readGoldens(String path) throws IOException {
+        Map<String, String> goldens = new LinkedHashMap<String, String>();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+        try {
+            String name = null;
+            StringBuilder rows = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("frame ")) {
+                    if (name != null) {
+                        goldens.put(name, rows.toString());
+                    }
+                    name = line.substring("frame ".length()).trim();
+                    rows.setLength(0);
+                } else if (name != null) {
+                    rows.append(line).append('\n');
+                } else {
+                    throw new IOException(path + ": rows before the first frame");
+                }
+            }
+            if (name != null) {
+                goldens.put(name, rows.toString());
+            }
+        } finally {
+            reader.close();
+        }
+        return goldens;
+    }
+
+    private static void writeGoldens(String path, Map<String, String> frames)
+            throws IOException {
+        Writer out = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8);
+        PrintWriter writer = new PrintWriter(out);
+        try {
+            writer.println("# Golden dot frames checked by tools/goldens, regenerate with");
+            writer.println("# --update after reviewing an intended rendering change.  \".\" is");
+            writer.println("# an empty dot, base 36 digits are palette indices as in");
+            writer.println("# DotcaseConstants.paintColors minus one.");
+            for (Map.Entry<String, String> entry : frames.entrySet()) {
+                writer.println();
+                writer.println("frame " + entry.getKey());
+                writer.print(entry.getValue());
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+
+package org.cyanogenmod.dotcase;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Replays a recorded event log against DotcaseController on the host.
+ *
+ * Time is taken from the log instead of the wall clock, and a stand-in host
+ * plays the part of the activity and the frame scheduler: it shows the
+ * display when asked to, composes a frame for every event that changes what
+ * is on screen, follows the frame intervals of animated screens and lets the
+ * screen time out like FrameScheduler does.  Cover events are raw and are
+ * debounced by the controller, with settle windows ended like DotcaseService
+ * does.  The same log always gives the
+ * same counts, so they can be compared between changes.  Latencies are wall
+ * clock times from dispatching an event to having its frame composed.
+ *
+ * Usage: java -jar dotcase-replay.jar [events.log]
+ * Without a log, a built-in cover, call and alarm scenario is replayed.
+ */
+public class EventReplayer {
+    // Same as FrameScheduler, doubling while charging is left out
+    private static final long SCREEN_TIMEOUT = 10000;
+
+    private static final String[] EVENT_NAMES = {
+        "cover", "screen-on", "ringing", "caller-resolved", "call-idle", "alarm", "swipe", "tap"
+    };
+
+    private final DotcaseStatus mStatus = new DotcaseStatus();
+    private final FrameComposer mComposer = new FrameComposer();
+    private final DotFrame mFrame = new DotFrame();
+    private final DotcaseController mController;
+
+    private long mNow;
+    private boolean mShown;
+    private boolean mScreenOn;
+    private boolean mFrameRequested;
+    private long mNextFrame = -1;
+    private long mSleepTime;
+    private long mSettleTime = -1;
+
+    private final int[] mEvents = new int[EVENT_NAMES.length];
+    private int mEventFrames;
+    private int mTimerFrames;
+    private int mSettles;
+    private int mLaunches;
+    private int mDismissals;
+    private int mKeepOnTop;
+    private int mReleasedTop;
+    private int mLookups;
+    private int mAnswered;
+    private int mEnded;
+    private int mSnoozed;
+    private int mAlarmsDismissed;
+    private final LatencyHistogram mLatency = new LatencyHistogram();
+
+    private final DotcaseController.Host mHost = new DotcaseController.Host() {
+        @Override
+        public long uptimeMillis() {
+            return mNow;
+        }
+
+        @Override
+        public void launchCoverDisplay() {
+            launchDisplay();
+        }
+
+        @Override
+        public void launchDisplay() {
+            mLaunches++;
+            mShown = true;
+            mFrameRequested = true;
+        }
+
+        @Override
+        public void dismissDisplay() {
+            mDismissals++;
+            mShown = false;
+            mNextFrame = -1;
+        }
+
+        @Override
+        public void keepOnTop() {
+            mKeepOnTop++;
+        }
+
+        @Override
+        public void stopKeepingOnTop() {
+            mReleasedTop++;
+        }
+
+        @Override
+        public String getCachedCallerName(String number) {
+            return null;
+        }
+
+        @Override
+        public void resolveCallerName(String number) {
+            // The result is part of the log
+            mLookups++;
+        }
+
+        @Override
+        public void answerCall() {
+            mAnswered++;
+        }
+
+        @Override
+        public void endCall() {
+            mEnded++;
+        }
+
+        @Override
+        public void snoozeAlarm() {
+            mSnoozed++;
+        }
+
+        @Override
+        public void dismissAlarm() {
+            mAlarmsDismissed++;
+        }
+
+        @Override
+        public void requestFrame() {
+            mFrameRequested = true;
+        }
+
+        @Override
+        public void resetSleepTimer() {
+            if (mScreenOn) {
+                mSleepTime = mNow + SCREEN_TIMEOUT;
+            }
+        }
+    };
+
+    EventReplayer() {
+        mController = new DotcaseController(mStatus, mHost,
+                DotcaseConstants.COVER_SETTLE_DEFAULT);
+        DotcaseState clock = SampleStates.clockState().build();
+        mStatus.setTime(clock.hour, clock.minute, clock.is24Hour);
+        mStatus.setBattery(clock.batteryLevel, clock.plugged);
+    }
+
+    public static void main(String[] args) throws IOException {
+        InputStream in;
+        if (args.length > 0) {
+            in = new BufferedInputStream(new FileInputStream(args[0]));
+        } else {
+            in = new ByteArrayInputStream(builtInScenario());
+        }
+
+        EventReplayer replayer = new EventReplayer();
+        try {
+            replayer.replay(new EventLog.Reader(in));
+        } finally {
+            in.close();
+        }
+        replayer.printSummary();
+    }
+
+    void replay(EventLog.Reader reader) throws IOException {
+        EventLog.Event event = new EventLog.Event();
+        while (reader.next(event)) {
+            runUntil(event.time);
+            mNow = event.time;
+            dispatch(event);
+        }
+        // Let the last screen run until it times out
+        runUntil(Long.MAX_VALUE);
+    }
+
+    /**
+     * Ends the settle windows and composes the timed frames due before the
+     * given time.
+     */
+    private void runUntil(long time) {
+        while (mSettleTime >= 0 && mSettleTime < time) {
+            runFramesUntil(mSettleTime);
+            mNow = mSettleTime;
+            mSettles++;
+            DotcaseState before = mStatus.getState();
+            long start = System.nanoTime();
+            mController.onCoverSettle();
+            settleCover();
+            onHandled(before, start);
+        }
+        runFramesUntil(time);
+    }
+
+    private void settleCover() {
+        CoverStateMachine coverState = mController.getCoverState();
+        mSettleTime = coverState.hasPendingChange() ? coverState.getSettleTime() : -1;
+    }
+
+    private void dispatch(EventLog.Event event) {
+        mEvents[event.type]++;
+        DotcaseState before = mStatus.getState();
+        long start = System.nanoTime();
+
+        switch (event.type) {
+            case EventLog.COVER:
+                mController.onCoverEvent(event.value != 0);
+                settleCover();
+                break;
+            case EventLog.SCREEN_ON:
+                mScreenOn = true;
+                mSleepTime = mNow + SCREEN_TIMEOUT;
+                mController.onScreenOn();
+                break;
+            case EventLog.RINGING:
+                mController.onRinging(event.first);
+                break;
+            case EventLog.CALLER_RESOLVED:
+                mController.onCallerResolved(event.first, event.second);
+                break;
+            case EventLog.CALL_IDLE:
+                mController.onCallIdle();
+                break;
+            case EventLog.ALARM:
+                mController.onAlarm();
+                break;
+            case EventLog.SWIPE:
+                mController.onSwipe(event.value);
+                break;
+            case EventLog.TAP:
+                mController.onTap();
+                break;
+        }
+        onHandled(before, start);
+    }
+
+    private void onHandled(DotcaseState before, long start) {
+        // A visible display is redrawn whenever its status changes
+        if (mFrameRequested || mStatus.getState() != before) {
+            mFrameRequested = false;
+            if (composeFrame()) {
+                mEventFrames++;
+                mLatency.record((System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+
+    /**
+     * Composes the timed frames due before the given time.
+     */
+    private void runFramesUntil(long time) {
+        while (mShown && mScreenOn) {
+            if (mSleepTime <= mNextFrame || mNextFrame < 0) {
+                if (mSleepTime >= time) {
+                    return;
+                }
+                mNow = mSleepTime;
+                handleSleep();
+                continue;
+            }
+            if (mNextFrame >= time) {
+                return;
+            }
+            mNow = mNextFrame;
+            if (composeFrame()) {
+                mTimerFrames++;
+            }
+        }
+    }
+
+    private void handleSleep() {
+        if (mStatus.isRinging() || mStatus.isAlarm()) {
+            mSleepTime = mNow + SCREEN_TIMEOUT;
+        } else {
+            mScreenOn = false;
+            mNextFrame = -1;
+        }
+    }
+
+    private boolean composeFrame() {
+        if (!mShown || !mScreenOn) {
+            return false;
+        }
+        mFrame.clear();
+        long delay = mComposer.compose(mStatus.getState(), mFrame, mNow);
+        mNextFrame = delay != FrameComposer.FRAME_INTERVAL_NONE ? mNow + delay : -1;
+        return true;
+    }
+
+    void printSummary() {
+        int events = 0;
+        StringBuilder counts = new StringBuilder();
+        for (int i = 0; i < mEvents.length; i++) {
+            events += mEvents[i];
+            if (mEvents[i] > 0) {
+                counts.append(counts.length() > 0 ? ", " : "")
+                        .append(EVENT_NAMES[i]).append(' ').append(mEvents[i]);
+            }
+        }
+
+        System.out.println("events:    " + events + " (" + counts + ")");
+        System.out.println("frames:    " + (mEventFrames + mTimerFrames) + " (" + mEventFrames
+                + " on events, " + mTimerFrames + " timed)");
+        System.out.println("wakeups:   " + (events + mTimerFrames + mSettles));
+        System.out.println("display:   " + mLaunches + " launched, " + mDismissals
+                + " dismissed, " + mKeepOnTop + " kept on top, " + mReleasedTop
+                + " released");
+        CoverStateMachine coverState = mController.getCoverState();
+        System.out.println("cover:     " + coverState.getEventCount() + " events, "
+                + coverState.getTransitionCount() + " transitions");
+        System.out.println("lookups:   " + mLookups);
+        System.out.println("calls:     " + mAnswered + " answered, " + mEnded + " ended");
+        System.out.println("alarms:    " + mSnoozed + " snoozed, " + mAlarmsDismissed
+                + " dismissed");
+        System.out.println("latency:   " + mLatency);
+    }
+
+    /**
+     * Cover close, screen on, an incoming call answered with a swipe, an
+     * alarm snoozed, a flapping cover open.
+     */
+    private static byte[] builtInScenario() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLog.Writer writer = new EventLog.Writer(out, null);
+        writer.write(0, EventLog.COVER, 1, null, null);
+        writer.write(150, EventLog.SCREEN_ON, 0, null, null);
+        writer.write(4000, EventLog.TAP, 0, null, null);
+        writer.write(12000, EventLog.RINGING, 0, SampleStates.CALLER_NUMBER, null);
+        writer.write(12180, EventLog.CALLER_RESOLVED, 0, SampleStates.CALLER_NUMBER,
+                Transliterator.transliterate(SampleStates.LONG_NAME));
+        writer.write(19500, EventLog.SWIPE, 0, null, null);
+        writer.write(19520, EventLog.SWIPE, 84, null, null);
+        writer.write(19600, EventLog.CALL_IDLE, 0, null, null);
+        writer.write(25000, EventLog.ALARM, 0, null, null);
+        writer.write(31000, EventLog.SWIPE, 71, null, null);
+        writer.write(33000, EventLog.COVER, 0, null, null);
+        writer.write(33040, EventLog.COVER, 1, null, null);
+        writer.write(33090, EventLog.COVER, 0, null, null);
+        writer.write(33150, EventLog.COVER, 1, null, null);
+        writer.write(33420, EventLog.COVER, 0, null, null);
+        writer.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2014 The CyanogenMod Project
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * Also add information on how to contact you by electronic and paper mail.
+ *
+ */
+
+package org.cyanogenmod.dotcase.tools;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles the sprite definitions in core/sprites/sprites.txt into the packed
+ * resource read by org.cyanogenmod.dotcase.Sprites.
+ *
+ * Usage: SpriteCompiler <sprites.txt> <output.bin>
+ */
+public class SpriteCompiler {
+    // Must match Sprites.MAGIC
+    private static final int MAGIC = 0x44535052;
+
+    private static final int MAX_SIZE = 127;
+    // Must match DotFrame.COLORS, the palette size minus the transparent entry
+    private static final int COLORS = 26;
+
+    private static class Sprite {
+        final int id;
+        final String name;
+        final List<int[]> rows = new ArrayList<int[]>();
+
+        Sprite(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: SpriteCompiler <sprites.txt> <output.bin>");
+            System.exit(2);
+        }
+
+        try {
+            List<Sprite> sprites = parse(args[0]);
+            write(sprites, args[1]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("SpriteCompiler: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static List<Sprite> parse(String path) throws IOException {
+        List<Sprite> sprites = new ArrayList<Sprite>();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path), "UTF-8"));
+        try {
+            Sprite sprite = null;
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty()) {
+                    continue;
+                }
+
+                String where = path + ":" + lineNumber + ": ";
+                if (tokens[0].equals("sprite")) {
+                    if (tokens.length != 3) {
+                        throw new IllegalArgumentException(where + "expected sprite <id> <name>");
+                    }
+                    sprite = new Sprite(parseNumber(tokens[1], where), tokens[2]);
+                    if (sprite.id != sprites.size()) {
+                        throw new IllegalArgumentException(where + "expected id "
+                                + sprites.size() + " for " + sprite.name);
+                    }
+                    sprites.add(sprite);
+                    continue;
+                }
+
+                if (sprite == null) {
+                    throw new IllegalArgumentException(where + "row outside of a sprite");
+                }
+                int[] row = new int[tokens.length];
+                for (int i = 0; i < tokens.length; i++) {
+                    row[i] = tokens[i].equals(".") ? -1 : parseNumber(tokens[i], where);
+                    if (row[i] < -1 || row[i] >= COLORS) {
+                        throw new IllegalArgumentException(where + "color out of range");
+                    }
+                }
+                if (!sprite.rows.isEmpty() && sprite.rows.get(0).length != row.length) {
+                    throw new IllegalArgumentException(where + "ragged row in " + sprite.name);
+                }
+                if (row.length > MAX_SIZE || sprite.rows.size() == MAX_SIZE) {
+                    throw new IllegalArgumentException(where + sprite.name + " is too large");
+                }
+                sprite.rows.add(row);
+            }
+        } finally {
+            reader.close();
+        }
+
+        for (Sprite sprite : sprites) {
+            if (sprite.rows.isEmpty()) {
+                throw new IllegalArgumentException(path + ": " + sprite.name + " is empty");
+            }
+        }
+        return sprites;
+    }
+
+    private static int parseNumber(String token, String where) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(where + "bad number " + token);
+        }
+    }
+
+    private static void write(List<Sprite> sprites, String path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeShort(sprites.size());
+        for (Sprite sprite : sprites) {
+            out.writeByte(sprite.rows.get(0).length);
+            out.writeByte(sprite.rows.size());
+        }
+        for (Sprite sprite : sprites) {
+            for (int[] row : sprite.rows) {
+                for (int dot : row) {
+                    out.writeByte(dot + 1);
+                }
+            }
+        }
+        out.flush();
+
+        FileOutputStream file = new FileOutputStream(path);
+        try {
+            bytes.writeTo(file);
+        } finally {
+            file.close();
+        }
+    }
+}